@@ -0,0 +1,58 @@
+package bench;
+
+import ai.HandcraftedEvaluator;
+import ai.IA;
+import ai.IANivel2;
+import ai.IANivel3;
+import controller.Game;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Lance completo das IAs ({@link IA#makeMove}) na profundidade fixa de cada
+ * uma, sobre as {@link BenchPositions}: tempo médio por posição. O profiler
+ * de GC ligado por {@link BenchMain} mostra os bytes alocados por busca.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 2, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+public class AiBenchmarks {
+
+    private List<Game> games;
+    private IA nivel2;
+    private IA nivel3;
+
+    @Setup
+    public void setup() {
+        games = BenchPositions.games();
+        nivel2 = new IANivel2();
+        nivel3 = new IANivel3(new HandcraftedEvaluator());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EngineBenchmarks.POSITIONS)
+    public void nivel2MakeMove(Blackhole bh) {
+        for (Game g : games) bh.consume(nivel2.makeMove(g));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EngineBenchmarks.POSITIONS)
+    public void nivel3MakeMove(Blackhole bh) {
+        for (Game g : games) bh.consume(nivel3.makeMove(g));
+    }
+}
@@ -0,0 +1,39 @@
+package bench;
+
+import java.io.IOException;
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.ProfilerConfig;
+
+/**
+ * Ponto de entrada do {@code benchmarks.jar}: aceita as mesmas opções do JMH
+ * ({@code -h} lista todas), mas liga sempre o {@link GCProfiler}, para que os
+ * bytes alocados por operação saiam em toda rodada. Sem filtro na linha de
+ * comando, roda todos os benchmarks do pacote {@code bench}.
+ */
+public final class BenchMain {
+
+    private BenchMain() {}
+
+    public static void main(String[] args) throws CommandLineOptionException, IOException, RunnerException {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        if (cmd.shouldHelp() || cmd.shouldList() || cmd.shouldListProfilers()) {
+            Main.main(args);
+            return;
+        }
+        OptionsBuilder opts = new OptionsBuilder();
+        opts.parent(cmd);
+        if (cmd.getIncludes().isEmpty()) opts.include("bench\\.");
+        boolean gc = false;
+        for (ProfilerConfig p : cmd.getProfilers()) {
+            gc |= p.getKlass().equals("gc") || p.getKlass().equals(GCProfiler.class.getName());
+        }
+        if (!gc) opts.addProfiler(GCProfiler.class);
+        new Runner(opts.build()).run();
+    }
+}
@@ -0,0 +1,133 @@
+package bench;
+
+import ai.Evaluator;
+import ai.HandcraftedEvaluator;
+import controller.Game;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import model.board.Position;
+import model.pieces.Piece;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Geração de lances, detecção de ataque, cópias e avaliação sobre as
+ * {@link BenchPositions}. Cada operação é uma posição (ou uma casa, no caso
+ * de {@code isSquareAttacked}); {@link BenchMain} liga o profiler de GC, que
+ * mostra os bytes alocados por operação ao lado da vazão.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+public class EngineBenchmarks {
+
+    static final int POSITIONS = 50;
+
+    private List<String> fens;
+    private List<Game> games;
+    private Position[][] own;     // casas do lado a jogar, por posição
+    private Position[] all;
+    private Evaluator eval;
+
+    @Setup
+    public void setup() {
+        fens = BenchPositions.FENS;
+        games = BenchPositions.games();
+        if (games.size() != POSITIONS) throw new IllegalStateException("BenchPositions mudou: " + games.size());
+        own = new Position[POSITIONS][];
+        for (int i = 0; i < POSITIONS; i++) {
+            Game g = games.get(i);
+            List<Position> sq = new ArrayList<>();
+            for (int r = 0; r < 8; r++) {
+                for (int c = 0; c < 8; c++) {
+                    Piece p = g.board().get(r, c);
+                    if (p != null && p.isWhite() == g.whiteToMove()) sq.add(new Position(r, c));
+                }
+            }
+            own[i] = sq.toArray(new Position[0]);
+        }
+        all = new Position[64];
+        for (int i = 0; i < 64; i++) all[i] = new Position(i / 8, i % 8);
+        eval = new HandcraftedEvaluator();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POSITIONS)
+    public void loadFen(Blackhole bh) {
+        for (int i = 0; i < POSITIONS; i++) {
+            Game g = games.get(i);
+            g.loadFen(fens.get(i));
+            bh.consume(g.whiteToMove());
+        }
+    }
+
+    /**
+     * Posições recém-carregadas, sem a lista de lances em cache: a recarga
+     * acontece no setup de cada chamada, fora da medição.
+     */
+    @State(Scope.Thread)
+    public static class ColdGames {
+        final Game[] games = new Game[POSITIONS];
+
+        @Setup(Level.Invocation)
+        public void reload() {
+            for (int i = 0; i < POSITIONS; i++) games[i] = Game.fromFen(BenchPositions.FENS.get(i));
+        }
+    }
+
+    /** Primeira consulta na posição: gera a lista de lances e filtra por casa. */
+    @Benchmark
+    @OperationsPerInvocation(POSITIONS)
+    public void legalMovesFrom(ColdGames cold, Blackhole bh) {
+        for (int i = 0; i < POSITIONS; i++) {
+            Game g = cold.games[i];
+            for (Position from : own[i]) bh.consume(g.legalMovesFrom(from));
+        }
+    }
+
+    /** As 64 casas, pelos dois lados. */
+    @Benchmark
+    @OperationsPerInvocation(POSITIONS * 128)
+    public void isSquareAttacked(Blackhole bh) {
+        for (Game g : games) {
+            for (Position sq : all) {
+                bh.consume(g.isSquareAttacked(sq, true));
+                bh.consume(g.isSquareAttacked(sq, false));
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POSITIONS)
+    public void boardCopy(Blackhole bh) {
+        for (Game g : games) bh.consume(g.board().copy());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POSITIONS)
+    public void snapshotShallow(Blackhole bh) {
+        for (Game g : games) bh.consume(g.snapshotShallow());
+    }
+
+    /** O que IANivel3.evaluateBoard faz: repassa ao avaliador (aqui o clássico). */
+    @Benchmark
+    @OperationsPerInvocation(POSITIONS)
+    public void evaluateBoard(Blackhole bh) {
+        for (Game g : games) bh.consume(eval.evaluate(g));
+    }
+}
@@ -0,0 +1,47 @@
+package ai;
+
+import ai.nnue.NnueEvaluator;
+import ai.nnue.NnueNetwork;
+import controller.Game;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Função de avaliação usada pelas buscas da IA.
+ * A pontuação é sempre do ponto de vista das brancas (positivo = vantagem branca).
+ *
+ * Avaliadores incrementais (ex.: NNUE) usam os ganchos push/pop, chamados pela
+ * busca ao descer/voltar na árvore; avaliadores sem estado podem ignorá-los.
+ */
+public interface Evaluator {
+
+    double evaluate(Game game);
+
+    /** Início de uma nova busca a partir da posição raiz. */
+    default void reset(Game root) {}
+
+    /** A busca desceu de {@code parent} para {@code child} (make). */
+    default void push(Game parent, Game child) {}
+
+    /** A busca voltou ao nó pai (unmake). */
+    default void pop() {}
+
+    /**
+     * Seleciona um avaliador pelo nome: "classic" (padrão) ou "nnue".
+     * Para "nnue", a rede é lida do arquivo indicado na propriedade
+     * {@code ai.nnue.file}; sem ela, usa {@link NnueNetwork#placeholder()},
+     * que só repete a avaliação clássica pelo caminho NNUE.
+     */
+    static Evaluator named(String name) {
+        if (name != null && name.equalsIgnoreCase("nnue")) {
+            String file = System.getProperty("ai.nnue.file");
+            try {
+                NnueNetwork net = (file == null) ? NnueNetwork.placeholder() : NnueNetwork.load(Path.of(file));
+                return new NnueEvaluator(net);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Não foi possível carregar a rede NNUE: " + file, e);
+            }
+        }
+        return new HandcraftedEvaluator();
+    }
+}
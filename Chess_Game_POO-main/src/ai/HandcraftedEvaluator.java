@@ -0,0 +1,31 @@
+package ai;
+
+import controller.Game;
+import model.board.Position;
+import model.pieces.Piece;
+
+/** Avaliação clássica: material + bônus de posição de {@link IAUtils}. */
+public class HandcraftedEvaluator implements Evaluator {
+
+    @Override
+    public double evaluate(Game game) {
+        double score = 0;
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                Position pos = new Position(r, c);
+                Piece p = game.board().get(pos);
+                if (p != null) {
+                    int pieceValue = IAUtils.getPieceValue(p);
+                    int positionBonus = IAUtils.getPositionBonus(p, pos);
+
+                    if (p.isWhite()) {
+                        score += pieceValue + positionBonus;
+                    } else {
+                        score -= pieceValue + positionBonus;
+                    }
+                }
+            }
+        }
+        return score;
+    }
+}
@@ -8,12 +8,15 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
-public class IANivel3 implements IA {
+public class IANivel2 implements IA {
 
     private static final int MAX_DEPTH = 1; // Profundidade máxima da busca (mais rápido)
 
+    private long nodes;
+
     @Override
     public Move makeMove(Game game) {
+        nodes = 0;
         List<Move> allLegalMoves = collectAllLegalMoves(game, game.whiteToMove());
         if (allLegalMoves.isEmpty()) {
             return null;
@@ -53,6 +56,10 @@ public class IANivel3 implements IA {
     }
 
     private double minimax(Game game, int depth, double alpha, double beta, boolean maximizingPlayer) {
+        nodes++;
+        if (game.isDraw() || game.canClaimDraw()) {
+            return 0;
+        }
         if (depth == 0 || game.isGameOver()) {
             return evaluateBoard(game);
         }
@@ -92,6 +99,9 @@ public class IANivel3 implements IA {
         }
     }
 
+    /** Nós visitados pelo último lance (não depende do sorteio entre empates). */
+    public long getNodes() { return nodes; }
+
     private List<Move> collectAllLegalMoves(Game game, boolean whiteSide) {
         List<Move> moves = new ArrayList<>();
         for (int r = 0; r < 8; r++) {
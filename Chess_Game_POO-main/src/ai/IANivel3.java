@@ -5,15 +5,42 @@ import model.board.Move;
 import model.board.Position;
 import model.pieces.Piece;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
+import trace.ChessEvents;
 
 public class IANivel3 implements IA {
 
     private static final int MAX_DEPTH = 1; // Profundidade máxima da busca (mais rápido)
 
+    /** Pontuação de mate (ajustada pela distância em plies até a raiz). */
+    public static final double MATE = 1_000_000;
+
+    private final Evaluator evaluator;
+
+    // Estado da busca em andamento
+    private SearchLimits limits = SearchLimits.infinite();
+    private long nodes;
+    private boolean aborted;
+    private final Move[][] pvTable = new Move[SearchLimits.MAX_DEPTH + 1][SearchLimits.MAX_DEPTH + 1];
+    private final int[] pvLength = new int[SearchLimits.MAX_DEPTH + 1];
+
+    public IANivel3() {
+        this(new HandcraftedEvaluator());
+    }
+
+    /** Usa o avaliador informado (ex.: {@code Evaluator.named("nnue")}). */
+    public IANivel3(Evaluator evaluator) {
+        this.evaluator = evaluator;
+    }
+
     @Override
     public Move makeMove(Game game) {
+        limits = SearchLimits.infinite();
+        nodes = 0;
+        aborted = false;
+        evaluator.reset(game);
         List<Move> allLegalMoves = collectAllLegalMoves(game, game.whiteToMove());
         if (allLegalMoves.isEmpty()) {
             return null;
@@ -27,7 +54,9 @@ public class IANivel3 implements IA {
             Character promo = move.getPromotion();
             gameCopy.move(move.getFrom(), move.getTo(), promo);
 
-            double score = minimax(gameCopy, MAX_DEPTH, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, !game.whiteToMove());
+            evaluator.push(game, gameCopy);
+            double score = minimax(gameCopy, MAX_DEPTH, 1, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, !game.whiteToMove());
+            evaluator.pop();
 
             if (game.whiteToMove()) { // Maximiza para as brancas
                 if (score > bestScore) {
@@ -52,8 +81,116 @@ public class IANivel3 implements IA {
         return bestMoves.get(random.nextInt(bestMoves.size()));
     }
 
-    private double minimax(Game game, int depth, double alpha, double beta, boolean maximizingPlayer) {
-        if (depth == 0 || game.isGameOver()) {
+    /**
+     * Busca iterativa (aprofundamento progressivo) respeitando os limites.
+     * Determinística: empates são resolvidos pela ordem dos lances, então o
+     * número de nós a uma profundidade fixa serve de assinatura da engine.
+     *
+     * @param listener notificado após cada iteração completa (pode ser null)
+     * @return a última iteração completa, ou null se não há lances legais
+     */
+    public SearchInfo search(Game game, SearchLimits limits, SearchListener listener) {
+        this.limits = limits;
+        this.nodes = 0;
+        this.aborted = false;
+        long start = System.nanoTime();
+        ChessEvents.SearchFinished finished = new ChessEvents.SearchFinished();
+        finished.begin();
+        ChessEvents.SearchStarted started = new ChessEvents.SearchStarted();
+        if (started.shouldCommit()) {
+            started.fen = game.snapshot().toFen();
+            started.maxDepth = limits.depth();
+            started.evaluator = evaluator.getClass().getSimpleName();
+            started.commit();
+        }
+        evaluator.reset(game);
+
+        boolean white = game.whiteToMove();
+        List<Move> rootMoves = collectAllLegalMoves(game, white);
+        if (rootMoves.isEmpty()) return null;
+
+        SearchInfo last = null;
+        for (int depth = 1; depth <= limits.depth(); depth++) {
+            ChessEvents.SearchIteration iteration = new ChessEvents.SearchIteration();
+            iteration.begin();
+            double alpha = Double.NEGATIVE_INFINITY;
+            double beta = Double.POSITIVE_INFINITY;
+            double bestScore = white ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+            Move best = null;
+            Move[] bestLine = new Move[0];
+
+            for (Move move : rootMoves) {
+                Game gameCopy = game.snapshotShallow();
+                gameCopy.move(move.getFrom(), move.getTo(), move.getPromotion());
+
+                evaluator.push(game, gameCopy);
+                double score = minimax(gameCopy, depth - 1, 1, alpha, beta, !white);
+                evaluator.pop();
+                if (aborted) break;
+
+                if (best == null || (white ? score > bestScore : score < bestScore)) {
+                    bestScore = score;
+                    best = move;
+                    bestLine = Arrays.copyOf(pvTable[1], pvLength[1]);
+                }
+                if (white) alpha = Math.max(alpha, score);
+                else beta = Math.min(beta, score);
+            }
+            if (aborted && last != null) break;
+            if (best == null) break;
+
+            List<Move> pv = new ArrayList<>();
+            pv.add(best);
+            pv.addAll(Arrays.asList(bestLine));
+            last = new SearchInfo(depth, bestScore, pv, nodes, (System.nanoTime() - start) / 1_000_000L);
+            if (iteration.shouldCommit()) {
+                iteration.depth = depth;
+                iteration.score = bestScore;
+                iteration.nodes = nodes;
+                iteration.bestMove = best.toString();
+                iteration.commit();
+            }
+            if (listener != null) listener.onIteration(last);
+
+            // Melhor lance primeiro na próxima iteração
+            rootMoves.remove(best);
+            rootMoves.add(0, best);
+
+            if (aborted || Math.abs(bestScore) >= MATE - depth) break;
+        }
+        if (last == null) {
+            // Parada antes de completar a 1ª iteração: qualquer lance legal
+            last = new SearchInfo(0, 0, List.of(rootMoves.get(0)), nodes, (System.nanoTime() - start) / 1_000_000L);
+        }
+        if (finished.shouldCommit()) {
+            finished.depth = last.getDepth();
+            finished.nodes = nodes;
+            finished.aborted = aborted || limits.isStopped();
+            finished.bestMove = String.valueOf(last.bestMove());
+            finished.commit();
+        }
+        return last;
+    }
+
+    private double minimax(Game game, int depth, int ply, double alpha, double beta, boolean maximizingPlayer) {
+        nodes++;
+        pvLength[ply] = 0;
+        if (limits.shouldStop(nodes)) {
+            aborted = true;
+            return 0;
+        }
+        if (game.isGameOver()) {
+            if (!game.isDraw() && game.inCheck(game.whiteToMove())) {
+                return game.whiteToMove() ? -(MATE - ply) : (MATE - ply);
+            }
+            return 0;
+        }
+        // Posição repetida dentro da linha: o melhor que se consegue é repetir de novo.
+        // Empate reivindicável (50 lances) também vale 0: o lado pior o reivindica.
+        if (game.repetitionCount() >= 2 || game.halfmoveClock() >= 100) {
+            return 0;
+        }
+        if (depth == 0 || ply >= SearchLimits.MAX_DEPTH) {
             return evaluateBoard(game);
         }
 
@@ -66,8 +203,14 @@ public class IANivel3 implements IA {
                 Character promo = move.getPromotion();
                 gameCopy.move(move.getFrom(), move.getTo(), promo);
 
-                double eval = minimax(gameCopy, depth - 1, alpha, beta, false);
-                maxEval = Math.max(maxEval, eval);
+                evaluator.push(game, gameCopy);
+                double eval = minimax(gameCopy, depth - 1, ply + 1, alpha, beta, false);
+                evaluator.pop();
+                if (aborted) return 0;
+                if (eval > maxEval) {
+                    maxEval = eval;
+                    updatePv(ply, move);
+                }
                 alpha = Math.max(alpha, eval);
                 if (beta <= alpha) {
                     break; // Poda
@@ -81,8 +224,14 @@ public class IANivel3 implements IA {
                 Character promo = move.getPromotion();
                 gameCopy.move(move.getFrom(), move.getTo(), promo);
 
-                double eval = minimax(gameCopy, depth - 1, alpha, beta, true);
-                minEval = Math.min(minEval, eval);
+                evaluator.push(game, gameCopy);
+                double eval = minimax(gameCopy, depth - 1, ply + 1, alpha, beta, true);
+                evaluator.pop();
+                if (aborted) return 0;
+                if (eval < minEval) {
+                    minEval = eval;
+                    updatePv(ply, move);
+                }
                 beta = Math.min(beta, eval);
                 if (beta <= alpha) {
                     break; // Poda
@@ -92,6 +241,17 @@ public class IANivel3 implements IA {
         }
     }
 
+    /** PV triangular: lance deste ply seguido da PV do filho. */
+    private void updatePv(int ply, Move move) {
+        int childLen = Math.min(pvLength[ply + 1], SearchLimits.MAX_DEPTH - ply);
+        pvTable[ply][0] = move;
+        System.arraycopy(pvTable[ply + 1], 0, pvTable[ply], 1, childLen);
+        pvLength[ply] = 1 + childLen;
+    }
+
+    /** Nós visitados pela última busca. */
+    public long getNodes() { return nodes; }
+
     private List<Move> collectAllLegalMoves(Game game, boolean whiteSide) {
         List<Move> moves = new ArrayList<>();
         for (int r = 0; r < 8; r++) {
@@ -113,23 +273,6 @@ public class IANivel3 implements IA {
     }
 
     private double evaluateBoard(Game game) {
-        double score = 0;
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                Position pos = new Position(r, c);
-                Piece p = game.board().get(pos);
-                if (p != null) {
-                    int pieceValue = IAUtils.getPieceValue(p);
-                    int positionBonus = IAUtils.getPositionBonus(p, pos);
-
-                    if (p.isWhite()) {
-                        score += pieceValue + positionBonus;
-                    } else {
-                        score -= pieceValue + positionBonus;
-                    }
-                }
-            }
-        }
-        return score;
+        return evaluator.evaluate(game);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,48 @@
+package ai;
+
+import java.util.List;
+import model.board.Move;
+
+/** Resultado de uma iteração completa da busca (profundidade, pontuação, PV, nós). */
+public class SearchInfo {
+
+    private final int depth;
+    private final double score;        // ponto de vista das brancas
+    private final List<Move> pv;
+    private final long nodes;
+    private final long elapsedMillis;
+
+    public SearchInfo(int depth, double score, List<Move> pv, long nodes, long elapsedMillis) {
+        this.depth = depth;
+        this.score = score;
+        this.pv = List.copyOf(pv);
+        this.nodes = nodes;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public int getDepth() { return depth; }
+    public double getScore() { return score; }
+    public List<Move> getPv() { return pv; }
+    public long getNodes() { return nodes; }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    public Move bestMove() { return pv.isEmpty() ? null : pv.get(0); }
+    public Move ponderMove() { return pv.size() > 1 ? pv.get(1) : null; }
+
+    /** Nós por segundo da busca até esta iteração. */
+    public long nps() {
+        return elapsedMillis <= 0 ? nodes * 1000 : nodes * 1000 / elapsedMillis;
+    }
+
+    /** true se a pontuação indica mate forçado (para um dos lados). */
+    public boolean isMate() {
+        return Math.abs(score) >= IANivel3.MATE - SearchLimits.MAX_DEPTH * 2;
+    }
+
+    /** Lances até o mate (positivo se as brancas dão mate). */
+    public int mateInMoves() {
+        int plies = (int) (IANivel3.MATE - Math.abs(score));
+        int moves = (plies + 1) / 2;
+        return score > 0 ? moves : -moves;
+    }
+}
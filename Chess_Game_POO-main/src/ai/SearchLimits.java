@@ -0,0 +1,65 @@
+package ai;
+
+/**
+ * Limites de uma busca iterativa: profundidade, nós, prazo e parada externa.
+ * O prazo e a parada podem ser alterados por outra thread durante a busca
+ * (ex.: comando "stop" ou "ponderhit" do UCI).
+ */
+public class SearchLimits {
+
+    /** Profundidade máxima quando nenhuma é informada. */
+    public static final int MAX_DEPTH = 64;
+
+    private final int depth;
+    private final long nodes;
+    private volatile long deadlineNanos; // 0 = sem prazo
+    private volatile boolean stopped;
+
+    public SearchLimits(int depth, long nodes, long deadlineNanos) {
+        this.depth = (depth <= 0) ? MAX_DEPTH : Math.min(depth, MAX_DEPTH);
+        this.nodes = nodes;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /** Busca até a profundidade indicada, sem prazo. */
+    public static SearchLimits depth(int depth) {
+        return new SearchLimits(depth, 0, 0);
+    }
+
+    /** Busca até {@link #stop()} (análise infinita / ponder). */
+    public static SearchLimits infinite() {
+        return new SearchLimits(0, 0, 0);
+    }
+
+    /** Busca por no máximo {@code millis} a partir de agora. */
+    public static SearchLimits movetime(long millis) {
+        return new SearchLimits(0, 0, System.nanoTime() + millis * 1_000_000L);
+    }
+
+    public int depth() { return depth; }
+    public long nodes() { return nodes; }
+
+    /** Define (ou redefine) o prazo em milissegundos a partir de agora. */
+    public void setMovetime(long millis) {
+        this.deadlineNanos = System.nanoTime() + Math.max(1, millis) * 1_000_000L;
+    }
+
+    /** Antecipa o prazo para {@code deadline} (System.nanoTime()), se for antes do atual. */
+    void tighten(long deadline) {
+        long d = deadlineNanos;
+        if (d == 0 || deadline - d < 0) deadlineNanos = deadline;
+    }
+
+    /** Pede a parada da busca; o resultado da última iteração completa é mantido. */
+    public void stop() { this.stopped = true; }
+
+    public boolean isStopped() { return stopped; }
+
+    /** true se algum limite foi atingido com {@code searched} nós visitados. */
+    public boolean shouldStop(long searched) {
+        if (stopped) return true;
+        if (nodes > 0 && searched >= nodes) return true;
+        long d = deadlineNanos;
+        return d != 0 && System.nanoTime() - d >= 0;
+    }
+}
@@ -0,0 +1,8 @@
+package ai;
+
+/** Recebe o resultado de cada iteração concluída da busca iterativa. */
+@FunctionalInterface
+public interface SearchListener {
+
+    void onIteration(SearchInfo info);
+}
@@ -0,0 +1,289 @@
+package ai;
+
+import controller.Game;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+import model.board.Move;
+
+/**
+ * Agendador de buscas da IA com prioridade por prazo (EDF: o pedido com o
+ * prazo mais próximo roda primeiro) num número fixo de threads.
+ * <p>
+ * Cada pedido tem um orçamento de tempo (quanto pode buscar) e um prazo
+ * (quando a resposta é necessária; por padrão, o próprio orçamento). Quando
+ * chega um pedido mais urgente e todas as threads estão ocupadas, a busca em
+ * andamento com o prazo mais distante é interrompida na próxima fronteira de
+ * iteração (ou antes, descartando a iteração em curso, se ela passaria do
+ * momento em que o urgente precisa começar para usar todo o orçamento):
+ * guarda a melhor iteração completa, volta para a fila com o
+ * orçamento que sobrou e, ao retomar, só troca o resultado guardado por um de
+ * profundidade igual ou maior.
+ * <p>
+ * Controle de admissão: um pedido é recusado ({@link RejectedExecutionException})
+ * se a fila está cheia ou se, descontado o orçamento restante de tudo o que
+ * tem prazo até o dele, sobra até o prazo menos CPU que
+ * {@value #MIN_BUDGET_SHARE} do seu orçamento. Admitido, o pedido busca no
+ * máximo até o prazo, mesmo que comece atrasado e com isso use menos que o
+ * orçamento.
+ * <p>
+ * Pedidos com {@link IA} qualquer (sem busca iterativa) só respeitam a
+ * prioridade: não podem ser interrompidos.
+ */
+public class SearchScheduler implements Closeable {
+
+    /** Atraso tolerado além do prazo antes de contar como prazo perdido. */
+    private static final long MISS_TOLERANCE_NANOS = 10_000_000L;
+    /** Fração mínima do orçamento que precisa caber até o prazo para admitir o pedido. */
+    private static final double MIN_BUDGET_SHARE = 0.25;
+
+    private final class Request implements Comparable<Request> {
+        final Game root;
+        final IA ia;                 // null = busca iterativa do IANivel3 (interrompível)
+        final int maxDepth;
+        final long deadline;         // System.nanoTime()
+        long budgetLeft;             // nanos
+        final CompletableFuture<SearchInfo> result = new CompletableFuture<>();
+        SearchInfo best;
+        volatile boolean preempt;
+        volatile SearchLimits limits;
+
+        Request(Game root, IA ia, int maxDepth, long budgetNanos, long deadline) {
+            this.root = root;
+            this.ia = ia;
+            this.maxDepth = maxDepth;
+            this.budgetLeft = budgetNanos;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public int compareTo(Request o) {
+            return Long.compare(deadline, o.deadline);
+        }
+    }
+
+    private final Supplier<IANivel3> engines;
+    private final int maxQueued;
+    private final Thread[] workers;
+    private final PriorityQueue<Request> queue = new PriorityQueue<>();
+    private final List<Request> running = new ArrayList<>();
+    private boolean closed;
+
+    // Métricas (protegidas pelo monitor)
+    private long submitted, completed, rejected, preemptions, deadlineMisses;
+
+    /**
+     * @param threads threads de busca (em geral, o número de núcleos)
+     * @param maxQueued pedidos esperando na fila antes de recusar
+     * @param engines cria a engine de cada thread (uma instância por thread)
+     */
+    public SearchScheduler(int threads, int maxQueued, Supplier<IANivel3> engines) {
+        this.engines = engines;
+        this.maxQueued = Math.max(1, maxQueued);
+        this.workers = new Thread[Math.max(1, threads)];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Thread(this::workLoop, "ai-scheduler-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    public SearchScheduler(int threads) {
+        this(threads, 256, IANivel3::new);
+    }
+
+    /**
+     * Busca iterativa na posição de {@code root} (a partida não é alterada).
+     *
+     * @param budgetMillis tempo de busca permitido
+     * @param deadlineMillis prazo da resposta a partir de agora (>= orçamento)
+     * @param maxDepth profundidade máxima (0 = sem limite)
+     * @throws RejectedExecutionException se o pedido não for admitido
+     */
+    public CompletableFuture<SearchInfo> submit(Game root, long budgetMillis, long deadlineMillis, int maxDepth) {
+        return enqueue(new Request(root.snapshotShallow(), null, maxDepth,
+                millis(budgetMillis), System.nanoTime() + millis(Math.max(budgetMillis, deadlineMillis))));
+    }
+
+    /** Como {@link #submit(Game, long, long, int)} com prazo igual ao orçamento. */
+    public CompletableFuture<SearchInfo> submit(Game root, long budgetMillis, int maxDepth) {
+        return submit(root, budgetMillis, budgetMillis, maxDepth);
+    }
+
+    /**
+     * Lance de uma {@link IA} qualquer, com prioridade pelo prazo; o orçamento
+     * só entra no controle de admissão. O resultado tem profundidade 0 e o
+     * lance como única entrada da PV.
+     */
+    public CompletableFuture<SearchInfo> submit(IA ia, Game root, long budgetMillis) {
+        return enqueue(new Request(root.snapshotShallow(), ia, 0,
+                millis(budgetMillis), System.nanoTime() + millis(budgetMillis)));
+    }
+
+    private static long millis(long ms) {
+        return Math.max(1, ms) * 1_000_000L;
+    }
+
+    private synchronized CompletableFuture<SearchInfo> enqueue(Request r) {
+        if (closed) throw new RejectedExecutionException("Agendador encerrado");
+        if (queue.size() >= maxQueued) {
+            rejected++;
+            throw new RejectedExecutionException("Fila cheia (" + queue.size() + " pedidos)");
+        }
+        if (!feasible(r)) {
+            rejected++;
+            throw new RejectedExecutionException("Sem CPU para cumprir o prazo");
+        }
+        submitted++;
+        queue.add(r);
+        if (running.size() >= workers.length) preemptFor(r);
+        notifyAll();
+        return r.result;
+    }
+
+    /** Teste de EDF: quanto de CPU sobra para {@code r} até o prazo, depois do que vence antes dele. */
+    private boolean feasible(Request r) {
+        long now = System.nanoTime();
+        long ahead = 0;
+        for (Request q : queue) if (q.deadline <= r.deadline) ahead += pending(q, now);
+        for (Request q : running) if (q.deadline <= r.deadline) ahead += pending(q, now);
+        long free = (r.deadline - now) * workers.length - ahead;
+        return free >= r.budgetLeft * MIN_BUDGET_SHARE;
+    }
+
+    /** Trabalho que ainda falta a um pedido (nunca além do seu prazo). */
+    private static long pending(Request q, long now) {
+        return Math.max(0, Math.min(q.budgetLeft, q.deadline - now));
+    }
+
+    /** Marca para interrupção a busca em andamento de prazo mais distante, se for menos urgente que {@code r}. */
+    private void preemptFor(Request r) {
+        Request victim = null;
+        for (Request q : running) {
+            if (q.ia == null && !q.preempt && q.deadline > r.deadline && (victim == null || q.deadline > victim.deadline)) {
+                victim = q;
+            }
+        }
+        if (victim == null) return;
+        victim.preempt = true; // efetivado na fronteira de iteração...
+        SearchLimits l = victim.limits;
+        if (l != null) l.tighten(r.deadline - r.budgetLeft); // ...ou quando o urgente precisa começar
+    }
+
+    // ---------- Threads de busca ----------
+
+    private void workLoop() {
+        IANivel3 engine = engines.get();
+        while (true) {
+            Request r;
+            synchronized (this) {
+                while (queue.isEmpty() && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (closed) return;
+                r = queue.poll();
+                r.preempt = false;
+                if (r.ia == null) r.limits = sliceLimits(r, System.nanoTime()); // antes de poder ser preemptado
+                running.add(r);
+            }
+            boolean requeue = false;
+            try {
+                requeue = (r.ia != null) ? runOnce(r) : runSlice(engine, r);
+            } catch (RuntimeException e) {
+                r.result.completeExceptionally(e);
+            } finally {
+                synchronized (this) {
+                    running.remove(r);
+                    if (requeue && !closed) {
+                        preemptions++;
+                        queue.add(r);
+                        notifyAll();
+                    } else {
+                        // preemptado durante o close: não volta à fila, entrega o que já tem
+                        if (requeue) r.result.complete(r.best);
+                        if (r.result.isDone()) {
+                            completed++;
+                            if (System.nanoTime() - r.deadline > MISS_TOLERANCE_NANOS) deadlineMisses++;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean runOnce(Request r) {
+        long t0 = System.nanoTime();
+        Move m = r.ia.makeMove(r.root);
+        long elapsed = System.nanoTime() - t0;
+        r.budgetLeft -= elapsed;
+        r.result.complete(m == null ? null : new SearchInfo(0, 0, List.of(m), 0, elapsed / 1_000_000L));
+        return false;
+    }
+
+    /** Limites de uma fatia: até o prazo ou o fim do orçamento, o que vier antes. */
+    private static SearchLimits sliceLimits(Request r, long now) {
+        long slice = Math.max(1_000_000L, Math.min(r.budgetLeft, r.deadline - now));
+        return new SearchLimits(r.maxDepth, 0, now + slice);
+    }
+
+    /** Busca até o prazo/orçamento ou até ser interrompida; true se deve voltar à fila. */
+    private boolean runSlice(IANivel3 engine, Request r) {
+        long now = System.nanoTime();
+        SearchLimits limits = r.limits;
+        SearchInfo info = engine.search(r.root.snapshotShallow(), limits, it -> {
+            if (r.preempt) limits.stop(); // a próxima iteração termina no primeiro nó
+        });
+        r.budgetLeft -= System.nanoTime() - now;
+
+        if (info != null && (r.best == null || info.getDepth() >= r.best.getDepth())) r.best = info;
+        boolean reachedDepth = r.best != null && r.maxDepth > 0 && r.best.getDepth() >= r.maxDepth;
+        boolean mate = r.best != null && r.best.isMate();
+        boolean outOfTime = r.budgetLeft <= 0 || System.nanoTime() >= r.deadline;
+        if (r.preempt && !reachedDepth && !mate && !outOfTime && info != null) return true;
+        r.result.complete(r.best);
+        return false;
+    }
+
+    // ---------- Métricas ----------
+
+    /** Pedidos esperando (sem contar os em execução). */
+    public synchronized int queueDepth() { return queue.size(); }
+    public synchronized int running() { return running.size(); }
+    public synchronized long submitted() { return submitted; }
+    public synchronized long completed() { return completed; }
+    /** Pedidos recusados pelo controle de admissão. */
+    public synchronized long rejected() { return rejected; }
+    /** Vezes que uma busca cedeu a vez a um pedido mais urgente. */
+    public synchronized long preemptions() { return preemptions; }
+    /** Respostas entregues depois do prazo. */
+    public synchronized long deadlineMisses() { return deadlineMisses; }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("fila=%d rodando=%d enviados=%d concluídos=%d recusados=%d preempções=%d prazos perdidos=%d",
+                queue.size(), running.size(), submitted, completed, rejected, preemptions, deadlineMisses);
+    }
+
+    /** Encerra: pedidos na fila são cancelados e as buscas em andamento param, entregando a melhor iteração já concluída. */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            for (Request r : queue) r.result.cancel(false);
+            queue.clear();
+            for (Request r : running) {
+                SearchLimits l = r.limits;
+                if (l != null) l.stop();
+            }
+            notifyAll();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package ai.nnue;
+
+import ai.Evaluator;
+import ai.HandcraftedEvaluator;
+import controller.Game;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import model.board.Position;
+import model.pieces.Piece;
+
+/**
+ * Compara avaliações por segundo: clássica, NNUE recalculada do zero e NNUE
+ * incremental (push + evaluate + pop por filho, como na busca).
+ *
+ * Uso: {@code java ai.nnue.EvalBench [segundos-por-caso] [rede.nnue]}
+ * (ou {@code -Dai.nnue.file=rede.nnue}). Sem rede treinada só a clássica é
+ * medida: a {@link NnueNetwork#placeholder() substituta} não é uma NNUE.
+ */
+public final class EvalBench {
+
+    private EvalBench() {}
+
+    public static void main(String[] args) throws IOException {
+        double seconds = args.length > 0 ? Double.parseDouble(args[0]) : 2.0;
+        String file = args.length > 1 ? args[1] : System.getProperty("ai.nnue.file");
+
+        List<Game[]> nodes = sampleNodes(40, 40, 12345L);
+        int evals = 0;
+        for (Game[] n : nodes) evals += n.length - 1;
+
+        Evaluator classic = new HandcraftedEvaluator();
+
+        report("classic", seconds, () -> {
+            double s = 0;
+            for (Game[] n : nodes) {
+                for (int i = 1; i < n.length; i++) s += classic.evaluate(n[i]);
+            }
+            return s;
+        }, evals);
+
+        if (file == null) {
+            System.out.println("nnue: sem rede treinada (informe o arquivo ou -Dai.nnue.file); casos NNUE não medidos");
+            return;
+        }
+        NnueEvaluator nnue = new NnueEvaluator(NnueNetwork.load(Path.of(file)));
+
+        report("nnue (refresh)", seconds, () -> {
+            double s = 0;
+            for (Game[] n : nodes) {
+                for (int i = 1; i < n.length; i++) s += nnue.evaluate(n[i]); // fora da pilha: recalcula
+            }
+            return s;
+        }, evals);
+
+        report("nnue (incremental)", seconds, () -> {
+            double s = 0;
+            for (Game[] n : nodes) {
+                nnue.reset(n[0]);
+                for (int i = 1; i < n.length; i++) {
+                    nnue.push(n[0], n[i]);
+                    s += nnue.evaluate(n[i]);
+                    nnue.pop();
+                }
+            }
+            return s;
+        }, evals);
+    }
+
+    private interface Case { double run(); }
+
+    private static void report(String name, double seconds, Case c, int evalsPerRun) {
+        long warmEnd = System.nanoTime() + (long) (seconds * 0.5e9);
+        double sink = 0;
+        while (System.nanoTime() < warmEnd) sink += c.run();
+
+        long runs = 0;
+        long start = System.nanoTime();
+        long end = start + (long) (seconds * 1e9);
+        while (System.nanoTime() < end) {
+            sink += c.run();
+            runs++;
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%-20s %,14.0f evals/s   (checksum %.0f)%n",
+                name, runs * evalsPerRun / elapsed, sink);
+    }
+
+    /**
+     * Nós tirados de partidas aleatórias reprodutíveis: cada array traz o pai
+     * na posição 0 seguido de todos os filhos (um por lance legal), como a busca vê.
+     */
+    static List<Game[]> sampleNodes(int count, int maxPlies, long seed) {
+        Random rnd = new Random(seed);
+        List<Game[]> out = new ArrayList<>();
+        while (out.size() < count) {
+            Game g = new Game();
+            int plies = rnd.nextInt(maxPlies);
+            for (int i = 0; i <= plies && !g.isGameOver(); i++) {
+                List<Position[]> moves = legalMoves(g);
+                if (moves.isEmpty()) break;
+                if (i == plies) {
+                    Game[] node = new Game[moves.size() + 1];
+                    node[0] = g;
+                    for (int k = 0; k < moves.size(); k++) {
+                        Game child = g.snapshotShallow();
+                        child.move(moves.get(k)[0], moves.get(k)[1], null);
+                        node[k + 1] = child;
+                    }
+                    out.add(node);
+                } else {
+                    Position[] m = moves.get(rnd.nextInt(moves.size()));
+                    g.move(m[0], m[1], null);
+                }
+            }
+        }
+        return out;
+    }
+
+    private static List<Position[]> legalMoves(Game g) {
+        List<Position[]> moves = new ArrayList<>();
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                Position from = new Position(r, c);
+                Piece p = g.board().get(from);
+                if (p == null || p.isWhite() != g.whiteToMove()) continue;
+                for (Position to : g.legalMovesFrom(from)) moves.add(new Position[] { from, to });
+            }
+        }
+        return moves;
+    }
+}
@@ -0,0 +1,58 @@
+package ai.nnue;
+
+import model.board.Board;
+import model.pieces.Piece;
+
+/**
+ * Acumuladores int16 das duas perspectivas (brancas e pretas) mais o termo PSQT.
+ * Atualizados de forma incremental: cada peça que entra/sai de uma casa soma ou
+ * subtrai uma coluna de H pesos, em vez de recalcular todas as peças.
+ */
+final class NnueAccumulator {
+
+    final short[][] values;
+    int psqt; // ponto de vista das brancas
+
+    NnueAccumulator(int hidden) {
+        this.values = new short[2][hidden];
+    }
+
+    /** Recalcula do zero a partir do tabuleiro. */
+    void refresh(NnueNetwork net, Board board) {
+        int h = net.hidden;
+        System.arraycopy(net.ftBias, 0, values[0], 0, h);
+        System.arraycopy(net.ftBias, 0, values[1], 0, h);
+        psqt = 0;
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                Piece p = board.get(r, c);
+                if (p != null) add(net, p.isWhite(), NnueNetwork.typeIndex(p), r * 8 + c);
+            }
+        }
+    }
+
+    void copyFrom(NnueAccumulator other) {
+        int h = values[0].length;
+        System.arraycopy(other.values[0], 0, values[0], 0, h);
+        System.arraycopy(other.values[1], 0, values[1], 0, h);
+        psqt = other.psqt;
+    }
+
+    void add(NnueNetwork net, boolean white, int type, int sq) {
+        int h = net.hidden;
+        int fw = NnueNetwork.feature(0, white, type, sq);
+        int fb = NnueNetwork.feature(1, white, type, sq);
+        NnueNetwork.addColumn(values[0], net.ftWeights, fw * h, h);
+        NnueNetwork.addColumn(values[1], net.ftWeights, fb * h, h);
+        psqt += net.psqt[fw];
+    }
+
+    void sub(NnueNetwork net, boolean white, int type, int sq) {
+        int h = net.hidden;
+        int fw = NnueNetwork.feature(0, white, type, sq);
+        int fb = NnueNetwork.feature(1, white, type, sq);
+        NnueNetwork.subColumn(values[0], net.ftWeights, fw * h, h);
+        NnueNetwork.subColumn(values[1], net.ftWeights, fb * h, h);
+        psqt -= net.psqt[fw];
+    }
+}
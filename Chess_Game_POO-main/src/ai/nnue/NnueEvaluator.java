@@ -0,0 +1,103 @@
+package ai.nnue;
+
+import ai.Evaluator;
+import controller.Game;
+import java.util.Arrays;
+import model.board.Board;
+import model.pieces.Piece;
+
+/**
+ * Avaliador NNUE com acumuladores incrementais.
+ *
+ * Mantém uma pilha de acumuladores paralela à pilha da busca: {@link #push}
+ * copia o topo e aplica só as casas que mudaram entre pai e filho (até 4 no
+ * roque), {@link #pop} descarta o topo. Posições avaliadas fora dessa pilha
+ * são recalculadas do zero. Não é thread-safe: uma instância por busca.
+ */
+public class NnueEvaluator implements Evaluator {
+
+    private final NnueNetwork net;
+
+    private NnueAccumulator[] stack = new NnueAccumulator[0];
+    private Game[] owners = new Game[0];
+    private int top = -1;
+
+    private final NnueAccumulator scratch;
+    private final byte[] input;
+    private final int[] hid1;
+    private final int[] hid2;
+
+    public NnueEvaluator(NnueNetwork net) {
+        this.net = net;
+        this.scratch = new NnueAccumulator(net.hidden);
+        this.input = new byte[2 * net.hidden];
+        this.hid1 = new int[net.l1];
+        this.hid2 = new int[net.l2];
+        ensureCapacity(64);
+    }
+
+    @Override
+    public void reset(Game root) {
+        top = 0;
+        stack[0].refresh(net, root.board());
+        owners[0] = root;
+    }
+
+    @Override
+    public void push(Game parent, Game child) {
+        if (top < 0 || owners[top] != parent) {
+            reset(parent);
+        }
+        ensureCapacity(top + 2);
+        NnueAccumulator next = stack[top + 1];
+        next.copyFrom(stack[top]);
+        applyDiff(next, parent.board(), child.board());
+        owners[++top] = child;
+    }
+
+    @Override
+    public void pop() {
+        if (top >= 0) owners[top--] = null;
+    }
+
+    @Override
+    public double evaluate(Game game) {
+        NnueAccumulator acc;
+        if (top >= 0 && owners[top] == game) {
+            acc = stack[top];
+        } else {
+            scratch.refresh(net, game.board());
+            acc = scratch;
+        }
+        boolean white = game.whiteToMove();
+        short[] us = acc.values[white ? 0 : 1];
+        short[] them = acc.values[white ? 1 : 0];
+        int out = net.forward(us, them, input, hid1, hid2);
+        return acc.psqt + (white ? out : -out);
+    }
+
+    /** Aplica ao acumulador as diferenças casa a casa entre dois tabuleiros. */
+    private void applyDiff(NnueAccumulator acc, Board before, Board after) {
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                Piece a = before.get(r, c);
+                Piece b = after.get(r, c);
+                if (a == null && b == null) continue;
+                if (a != null && b != null && a.isWhite() == b.isWhite()
+                        && a.getClass() == b.getClass()) continue;
+                int sq = r * 8 + c;
+                if (a != null) acc.sub(net, a.isWhite(), NnueNetwork.typeIndex(a), sq);
+                if (b != null) acc.add(net, b.isWhite(), NnueNetwork.typeIndex(b), sq);
+            }
+        }
+    }
+
+    private void ensureCapacity(int size) {
+        if (stack.length >= size) return;
+        int old = stack.length;
+        int n = Math.max(size, old * 2);
+        stack = Arrays.copyOf(stack, n);
+        owners = Arrays.copyOf(owners, n);
+        for (int i = old; i < n; i++) stack[i] = new NnueAccumulator(net.hidden);
+    }
+}
@@ -0,0 +1,252 @@
+package ai.nnue;
+
+import ai.IAUtils;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import model.board.Position;
+import model.pieces.*;
+
+/**
+ * Pesos quantizados de uma rede NNUE (768 → 2×H → L1 → L2 → 1).
+ *
+ * Entrada: 768 features (2 cores relativas × 6 tipos × 64 casas) por perspectiva.
+ * Camada de features em int16 (acumuladores), camadas densas em int8 com soma int32.
+ * Além da saída da rede há um termo PSQT (material + posição) somado direto dos acumuladores.
+ *
+ * Formato do arquivo (little-endian):
+ * <pre>
+ *   int magic "NNU1", int H, int L1, int L2
+ *   short ftBias[H], short ftWeights[768*H], int psqt[768]
+ *   int l1Bias[L1], byte l1Weights[L1*2H]
+ *   int l2Bias[L2], byte l2Weights[L2*L1]
+ *   int outBias,    byte outWeights[L2]
+ * </pre>
+ */
+public final class NnueNetwork {
+
+    public static final int INPUTS = 768;
+    public static final int MAGIC = 0x3155_4E4E; // "NNU1"
+
+    /** Faixa da ClippedReLU (ativações int8 não negativas). */
+    static final int CLIP = 127;
+    /** Escala dos pesos int8 das camadas densas (shift após cada camada). */
+    static final int WEIGHT_SHIFT = 6;
+    /** Divisor da saída bruta para centipawns. */
+    static final int OUTPUT_SCALE = 16;
+
+    final int hidden;
+    final int l1;
+    final int l2;
+
+    final short[] ftBias;
+    final short[] ftWeights;   // coluna de H pesos contígua por feature
+    final int[] psqt;          // por feature na perspectiva das brancas
+    final int[] l1Bias;
+    final byte[] l1Weights;    // linha de 2H pesos contígua por neurônio
+    final int[] l2Bias;
+    final byte[] l2Weights;
+    final int outBias;
+    final byte[] outWeights;
+    private final boolean placeholder;
+
+    private NnueNetwork(boolean placeholder, int hidden, int l1, int l2,
+                        short[] ftBias, short[] ftWeights, int[] psqt,
+                        int[] l1Bias, byte[] l1Weights,
+                        int[] l2Bias, byte[] l2Weights,
+                        int outBias, byte[] outWeights) {
+        this.hidden = hidden;
+        this.l1 = l1;
+        this.l2 = l2;
+        this.ftBias = ftBias;
+        this.ftWeights = ftWeights;
+        this.psqt = psqt;
+        this.l1Bias = l1Bias;
+        this.l1Weights = l1Weights;
+        this.l2Bias = l2Bias;
+        this.l2Weights = l2Weights;
+        this.outBias = outBias;
+        this.outWeights = outWeights;
+        this.placeholder = placeholder;
+    }
+
+    public int hiddenSize() { return hidden; }
+
+    /** Se esta é a rede substituta de {@link #placeholder()}, e não pesos lidos de arquivo. */
+    public boolean isPlaceholder() { return placeholder; }
+
+    /**
+     * Rede SUBSTITUTA, não treinada: todos os pesos do transformador e das
+     * camadas densas são zero, então a saída é só o termo PSQT, que reproduz a
+     * avaliação clássica de {@link IAUtils}. Serve para exercitar o caminho
+     * NNUE (acumuladores, push/pop) sem arquivo de pesos; não mede a força de
+     * uma NNUE e não entra nos benchmarks. Para uma rede de verdade use
+     * {@link #load(Path)}.
+     */
+    public static NnueNetwork placeholder() {
+        int h = 128, a = 32, b = 32;
+        int[] psqt = new int[INPUTS];
+        Piece[][] samples = {
+            { new Pawn(null, true), new Knight(null, true), new Bishop(null, true),
+              new Rook(null, true), new Queen(null, true), new King(null, true) },
+            { new Pawn(null, false), new Knight(null, false), new Bishop(null, false),
+              new Rook(null, false), new Queen(null, false), new King(null, false) }
+        };
+        for (int color = 0; color < 2; color++) {
+            for (int type = 0; type < 6; type++) {
+                Piece p = samples[color][type];
+                for (int sq = 0; sq < 64; sq++) {
+                    int v = IAUtils.getPieceValue(p) + IAUtils.getPositionBonus(p, new Position(sq >> 3, sq & 7));
+                    psqt[feature(0, color == 0, type, sq)] = (color == 0) ? v : -v;
+                }
+            }
+        }
+        return new NnueNetwork(true, h, a, b,
+                new short[h], new short[INPUTS * h], psqt,
+                new int[a], new byte[a * 2 * h],
+                new int[b], new byte[b * a],
+                0, new byte[b]);
+    }
+
+    /** Lê uma rede no formato descrito no cabeçalho da classe. */
+    public static NnueNetwork load(Path file) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            DataInputStream din = new DataInputStream(in);
+            ByteBuffer head = ByteBuffer.wrap(din.readNBytes(16)).order(ByteOrder.LITTLE_ENDIAN);
+            if (head.remaining() < 16 || head.getInt() != MAGIC) {
+                throw new IOException("Arquivo NNUE inválido: " + file);
+            }
+            int h = head.getInt(), a = head.getInt(), b = head.getInt();
+            if (h <= 0 || a <= 0 || b <= 0 || h > 4096 || a > 1024 || b > 1024) {
+                throw new IOException("Dimensões NNUE inválidas: " + h + "/" + a + "/" + b);
+            }
+            ByteBuffer body = ByteBuffer.wrap(din.readAllBytes()).order(ByteOrder.LITTLE_ENDIAN);
+            try {
+                short[] ftBias = readShorts(body, h);
+                short[] ftWeights = readShorts(body, INPUTS * h);
+                int[] psqt = readInts(body, INPUTS);
+                int[] l1Bias = readInts(body, a);
+                byte[] l1Weights = readBytes(body, a * 2 * h);
+                int[] l2Bias = readInts(body, b);
+                byte[] l2Weights = readBytes(body, b * a);
+                int outBias = body.getInt();
+                byte[] outWeights = readBytes(body, b);
+                return new NnueNetwork(false, h, a, b, ftBias, ftWeights, psqt,
+                        l1Bias, l1Weights, l2Bias, l2Weights, outBias, outWeights);
+            } catch (BufferUnderflowException e) {
+                throw new IOException("Arquivo NNUE truncado: " + file, e);
+            }
+        }
+    }
+
+    /**
+     * Índice da feature (0..767) de uma peça vista por uma perspectiva.
+     * Na perspectiva das pretas o tabuleiro é espelhado e as cores trocadas.
+     *
+     * @param perspective 0 = brancas, 1 = pretas
+     * @param white cor da peça
+     * @param type 0..5 (P, N, B, R, Q, K)
+     * @param sq row * 8 + column
+     */
+    public static int feature(int perspective, boolean white, int type, int sq) {
+        if (perspective == 0) {
+            return ((white ? 0 : 1) * 6 + type) * 64 + sq;
+        }
+        return ((white ? 1 : 0) * 6 + type) * 64 + (sq ^ 56);
+    }
+
+    /** Tipo da peça como índice 0..5 (P, N, B, R, Q, K). */
+    public static int typeIndex(Piece p) {
+        if (p instanceof Pawn) return 0;
+        if (p instanceof Knight) return 1;
+        if (p instanceof Bishop) return 2;
+        if (p instanceof Rook) return 3;
+        if (p instanceof Queen) return 4;
+        return 5;
+    }
+
+    /**
+     * Inferência a partir dos acumuladores já atualizados.
+     *
+     * @param us acumulador do lado a jogar
+     * @param them acumulador do adversário
+     * @param in buffer de ativações int8 com 2H posições
+     * @param hid1 buffer da primeira camada densa (L1 posições)
+     * @param hid2 buffer da segunda camada densa (L2 posições)
+     * @return saída em centipawns do ponto de vista do lado a jogar (sem PSQT)
+     */
+    int forward(short[] us, short[] them, byte[] in, int[] hid1, int[] hid2) {
+        int h = hidden;
+        clippedRelu(us, in, 0, h);
+        clippedRelu(them, in, h, h);
+
+        for (int j = 0; j < l1; j++) {
+            int sum = l1Bias[j] + dot(in, l1Weights, j * 2 * h, 2 * h);
+            hid1[j] = clamp(sum >> WEIGHT_SHIFT);
+        }
+        for (int j = 0; j < l2; j++) {
+            int sum = l2Bias[j];
+            int off = j * l1;
+            for (int i = 0; i < l1; i++) sum += hid1[i] * l2Weights[off + i];
+            hid2[j] = clamp(sum >> WEIGHT_SHIFT);
+        }
+        int out = outBias;
+        for (int i = 0; i < l2; i++) out += hid2[i] * outWeights[i];
+        return out / OUTPUT_SCALE;
+    }
+
+    // ---------- Kernels ----------
+    // Laços simples sobre arrays primitivos: o C2 os vetoriza (SuperWord) sem
+    // depender do módulo incubador jdk.incubator.vector.
+
+    private static void clippedRelu(short[] acc, byte[] out, int off, int n) {
+        for (int i = 0; i < n; i++) {
+            int v = acc[i];
+            out[off + i] = (byte) (v < 0 ? 0 : (v > CLIP ? CLIP : v));
+        }
+    }
+
+    private static int dot(byte[] x, byte[] w, int off, int n) {
+        int sum = 0;
+        for (int i = 0; i < n; i++) sum += x[i] * w[off + i];
+        return sum;
+    }
+
+    static void addColumn(short[] acc, short[] w, int off, int n) {
+        for (int i = 0; i < n; i++) acc[i] += w[off + i];
+    }
+
+    static void subColumn(short[] acc, short[] w, int off, int n) {
+        for (int i = 0; i < n; i++) acc[i] -= w[off + i];
+    }
+
+    private static int clamp(int v) {
+        return v < 0 ? 0 : (v > CLIP ? CLIP : v);
+    }
+
+    private static short[] readShorts(ByteBuffer b, int n) {
+        short[] out = new short[n];
+        b.asShortBuffer().get(out);
+        b.position(b.position() + n * 2);
+        return out;
+    }
+
+    private static int[] readInts(ByteBuffer b, int n) {
+        int[] out = new int[n];
+        b.asIntBuffer().get(out);
+        b.position(b.position() + n * 4);
+        return out;
+    }
+
+    private static byte[] readBytes(ByteBuffer b, int n) {
+        byte[] out = new byte[n];
+        b.get(out);
+        return out;
+    }
+}
@@ -0,0 +1,132 @@
+package archive;
+
+import controller.Game;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import model.board.Move;
+import model.board.MoveCode;
+
+/**
+ * Formato binário do arquivo de partidas (.cga) e do índice (.cga.idx).
+ *
+ * <pre>
+ * .cga      cabeçalho: int magic "CGA1", int versão
+ *           partidas:  varint nTags, (str nome, str valor)*, byte resultado,
+ *                      str fenInicial ("" = posição inicial), varint plies,
+ *                      byte índice[plies]
+ * .cga.idx  cabeçalho: int magic "CGI1", int versão, long nPartidas
+ *           long offset[nPartidas]  (offset da partida no .cga)
+ * </pre>
+ * str = varint tamanho + bytes UTF-8. Cada lance é o seu índice na lista
+ * ordenada de {@link Game#legalMoveCodes()} (no máximo 218 lances legais, cabe em 1 byte).
+ */
+final class ArchiveFormat {
+
+    static final int MAGIC = 0x3141_4743;        // "CGA1"
+    static final int INDEX_MAGIC = 0x3149_4743;  // "CGI1"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 8;
+    static final int INDEX_HEADER_SIZE = 16;
+
+    static final String[] RESULTS = { "*", "1-0", "0-1", "1/2-1/2" };
+
+    private ArchiveFormat() {}
+
+    /**
+     * Codifica uma partida (reproduz os lances para obter os índices).
+     *
+     * @throws IllegalArgumentException se o FEN for inválido ou um lance não puder ser aplicado
+     */
+    static byte[] encode(Map<String, String> tags, String startFen, List<Move> moves, String result) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 + moves.size());
+        writeVarint(out, tags.size());
+        for (Map.Entry<String, String> e : tags.entrySet()) {
+            writeString(out, e.getKey());
+            writeString(out, e.getValue());
+        }
+        out.write(Math.max(0, Arrays.asList(RESULTS).indexOf(result)));
+        writeString(out, startFen == null ? "" : startFen);
+
+        Game game = (startFen == null || startFen.isEmpty()) ? new Game() : Game.fromFen(startFen);
+        writeVarint(out, moves.size());
+        for (Move m : moves) {
+            int code = MoveCode.encode(m.getFrom(), m.getTo(), m.getPromotion());
+            int[] legal = game.legalMoveCodes();
+            int idx = Arrays.binarySearch(legal, code);
+            if (idx < 0) throw new IllegalArgumentException("Lance ilegal: " + MoveCode.toUci(code));
+            out.write(idx);
+            int before = game.plyCount();
+            game.move(code);
+            if (game.plyCount() == before) {
+                // Game.move não aplica nada com a partida encerrada: o registro ficaria corrompido
+                throw new IllegalArgumentException("Lance não aplicado: " + MoveCode.toUci(code));
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodifica uma partida reproduzindo os índices em {@link Game}.
+     * O visitante (se houver) recebe cada posição, da inicial (ply 0) à final.
+     */
+    static ArchivedGame decode(long id, ByteBuffer in, GameArchiveReader.PositionVisitor visitor) {
+        int nTags = readVarint(in);
+        Map<String, String> tags = new LinkedHashMap<>();
+        for (int i = 0; i < nTags; i++) tags.put(readString(in), readString(in));
+        int res = in.get() & 0xFF;
+        String result = res < RESULTS.length ? RESULTS[res] : "*";
+        String fen = readString(in);
+
+        Game game = fen.isEmpty() ? new Game() : Game.fromFen(fen);
+        int plies = readVarint(in);
+        int[] codes = new int[plies];
+        if (visitor != null) visitor.visit(game, 0);
+        for (int i = 0; i < plies; i++) {
+            int idx = in.get() & 0xFF;
+            int[] legal = game.legalMoveCodes();
+            if (idx >= legal.length) throw new IllegalStateException("Partida " + id + " corrompida no ply " + (i + 1));
+            codes[i] = legal[idx];
+            game.move(codes[i]);
+            if (visitor != null) visitor.visit(game, i + 1);
+        }
+        return new ArchivedGame(id, tags, result, fen, codes, game);
+    }
+
+    // ---------- Primitivos ----------
+
+    static void writeVarint(ByteArrayOutputStream out, int v) {
+        while ((v & ~0x7F) != 0) {
+            out.write((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        out.write(v);
+    }
+
+    static int readVarint(ByteBuffer in) {
+        int v = 0, shift = 0, b;
+        do {
+            b = in.get() & 0xFF;
+            v |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0 && shift < 35);
+        return v;
+    }
+
+    static void writeString(ByteArrayOutputStream out, String s) {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, b.length);
+        out.write(b, 0, b.length);
+    }
+
+    static String readString(ByteBuffer in) {
+        int len = readVarint(in);
+        byte[] b = new byte[len];
+        in.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,41 @@
+package archive;
+
+import controller.Game;
+import java.util.Collections;
+import java.util.Map;
+
+/** Partida lida do arquivo binário, já reproduzida. */
+public class ArchivedGame {
+
+    private final long id;
+    private final Map<String, String> tags;
+    private final String result;
+    private final String startFen;
+    private final int[] moves;
+    private final Game game;
+
+    ArchivedGame(long id, Map<String, String> tags, String result, String startFen, int[] moves, Game game) {
+        this.id = id;
+        this.tags = Collections.unmodifiableMap(tags);
+        this.result = result;
+        this.startFen = startFen;
+        this.moves = moves;
+        this.game = game;
+    }
+
+    /** Número da partida no arquivo (0..n-1). */
+    public long getId() { return id; }
+    public Map<String, String> getTags() { return tags; }
+    public String getTag(String name) { return tags.get(name); }
+    public String getResult() { return result; }
+
+    /** FEN inicial, ou "" para a posição inicial padrão. */
+    public String getStartFen() { return startFen; }
+
+    /** Lances como {@link model.board.MoveCode}. */
+    public int[] getMoves() { return moves.clone(); }
+    public int getPlyCount() { return moves.length; }
+
+    /** Partida na posição final. */
+    public Game getGame() { return game; }
+}
@@ -0,0 +1,105 @@
+package archive;
+
+import controller.Game;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Leitura do arquivo binário de partidas com acesso aleatório O(1):
+ * o índice de offsets é mapeado em memória e a partida N é lida com uma
+ * única leitura posicional. Seguro para uso concorrente.
+ * O índice é mapeado numa única região, o que limita o arquivo a ~268 milhões de partidas.
+ */
+public class GameArchiveReader implements Closeable {
+
+    private final FileChannel data;
+    private final long dataSize;
+    private final LongBuffer offsets;
+    private final long count;
+
+    public GameArchiveReader(Path file) throws IOException {
+        this.data = FileChannel.open(file, StandardOpenOption.READ);
+        this.dataSize = data.size();
+        ByteBuffer h = ByteBuffer.allocate(ArchiveFormat.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        data.read(h, 0);
+        h.flip();
+        if (h.remaining() < ArchiveFormat.HEADER_SIZE || h.getInt() != ArchiveFormat.MAGIC) {
+            data.close();
+            throw new IOException("Arquivo de partidas inválido: " + file);
+        }
+
+        try (FileChannel idx = FileChannel.open(GameArchiveWriter.indexPath(file), StandardOpenOption.READ)) {
+            MappedByteBuffer map = idx.map(FileChannel.MapMode.READ_ONLY, 0, idx.size());
+            map.order(ByteOrder.LITTLE_ENDIAN);
+            if (map.remaining() < ArchiveFormat.INDEX_HEADER_SIZE || map.getInt(0) != ArchiveFormat.INDEX_MAGIC) {
+                data.close();
+                throw new IOException("Índice inválido: " + GameArchiveWriter.indexPath(file));
+            }
+            this.count = map.getLong(8);
+            map.position(ArchiveFormat.INDEX_HEADER_SIZE);
+            this.offsets = map.slice().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+        }
+        if (offsets.capacity() < count) {
+            data.close();
+            throw new IOException("Índice truncado: " + GameArchiveWriter.indexPath(file));
+        }
+    }
+
+    /** Número de partidas no arquivo. */
+    public long size() { return count; }
+
+    /** Recebe cada posição de uma partida enquanto ela é reproduzida. */
+    @FunctionalInterface
+    public interface PositionVisitor {
+        void visit(Game game, int ply);
+    }
+
+    /** Lê e reproduz a partida {@code id} (0..size-1). */
+    public ArchivedGame get(long id) throws IOException {
+        return ArchiveFormat.decode(id, raw(id), null);
+    }
+
+    /** Como {@link #get(long)}, avisando o visitante a cada posição (ply 0 = inicial). */
+    public ArchivedGame get(long id, PositionVisitor visitor) throws IOException {
+        return ArchiveFormat.decode(id, raw(id), visitor);
+    }
+
+    /** Bytes crus da partida {@code id}, sem reproduzir os lances. */
+    public ByteBuffer raw(long id) throws IOException {
+        if (id < 0 || id >= count) throw new IndexOutOfBoundsException("Partida " + id + " de " + count);
+        long start = offsets.get((int) id);
+        long end = (id + 1 < count) ? offsets.get((int) (id + 1)) : dataSize;
+        ByteBuffer buf = ByteBuffer.allocate((int) (end - start));
+        while (buf.hasRemaining()) {
+            if (data.read(buf, start + buf.position()) < 0) throw new IOException("Arquivo truncado na partida " + id);
+        }
+        buf.flip();
+        return buf;
+    }
+
+    /** Todas as partidas em ordem (stream preguiçoso; aceita .parallel()). */
+    public Stream<ArchivedGame> games() {
+        return LongStream.range(0, count).mapToObj(id -> {
+            try {
+                return get(id);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        data.close();
+    }
+}
@@ -0,0 +1,126 @@
+package archive;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import model.board.Move;
+import pgn.PgnGame;
+
+/**
+ * Grava partidas no formato binário (ver {@link ArchiveFormat}) e o índice de
+ * offsets ao lado ({@code arquivo.idx}). Não é thread-safe; para converter em
+ * paralelo, codifique com {@link #encode} nas threads e grave com
+ * {@link #appendEncoded} na ordem desejada.
+ */
+public class GameArchiveWriter implements Closeable {
+
+    private static final int BUFFER = 1 << 16;
+
+    private final FileChannel data;
+    private final FileChannel index;
+    private final ByteBuffer dataBuf = ByteBuffer.allocate(BUFFER);
+    private final ByteBuffer indexBuf = ByteBuffer.allocate(BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+    private long position;
+    private long count;
+
+    public GameArchiveWriter(Path file) throws IOException {
+        this.data = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.index = FileChannel.open(indexPath(file), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+
+        ByteBuffer h = ByteBuffer.allocate(ArchiveFormat.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        h.putInt(ArchiveFormat.MAGIC).putInt(ArchiveFormat.VERSION).flip();
+        writeFully(data, h);
+        position = ArchiveFormat.HEADER_SIZE;
+
+        ByteBuffer ih = ByteBuffer.allocate(ArchiveFormat.INDEX_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        ih.putInt(ArchiveFormat.INDEX_MAGIC).putInt(ArchiveFormat.VERSION).putLong(0).flip();
+        writeFully(index, ih);
+    }
+
+    /** Caminho do índice de um arquivo de partidas. */
+    public static Path indexPath(Path file) {
+        return file.resolveSibling(file.getFileName() + ".idx");
+    }
+
+    /** Codifica uma partida; seguro para uso concorrente. */
+    public static byte[] encode(Map<String, String> tags, String startFen, List<Move> moves, String result) {
+        return ArchiveFormat.encode(tags, startFen, moves, result);
+    }
+
+    /**
+     * Codifica uma partida lida de PGN (apenas os lances reproduzidos com sucesso).
+     *
+     * @return o registro, ou null se a partida não pode ser gravada (FEN inválido, lance inaplicável)
+     */
+    public static byte[] encode(PgnGame g) {
+        String fen = g.getTag("FEN");
+        try {
+            return ArchiveFormat.encode(g.getTags(), fen == null ? "" : fen, g.getMoves(), g.getResult());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /** Grava uma partida e devolve o seu número no arquivo. */
+    public long append(Map<String, String> tags, String startFen, List<Move> moves, String result) throws IOException {
+        return appendEncoded(encode(tags, startFen, moves, result));
+    }
+
+    /** Grava uma partida já codificada com {@link #encode}. */
+    public long appendEncoded(byte[] record) throws IOException {
+        if (indexBuf.remaining() < 8) flushIndex();
+        indexBuf.putLong(position);
+
+        int off = 0;
+        while (off < record.length) {
+            if (!dataBuf.hasRemaining()) flushData();
+            int n = Math.min(dataBuf.remaining(), record.length - off);
+            dataBuf.put(record, off, n);
+            off += n;
+        }
+        position += record.length;
+        return count++;
+    }
+
+    public long count() { return count; }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flushData();
+            flushIndex();
+            ByteBuffer c = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putLong(count);
+            c.flip();
+            while (c.hasRemaining()) index.write(c, 8 + (8 - c.remaining()));
+            data.force(false);
+            index.force(false);
+        } finally {
+            data.close();
+            index.close();
+        }
+    }
+
+    private void flushData() throws IOException {
+        dataBuf.flip();
+        writeFully(data, dataBuf);
+        dataBuf.clear();
+    }
+
+    private void flushIndex() throws IOException {
+        indexBuf.flip();
+        writeFully(index, indexBuf);
+        indexBuf.clear();
+    }
+
+    private static void writeFully(FileChannel ch, ByteBuffer b) throws IOException {
+        while (b.hasRemaining()) ch.write(b);
+    }
+}
@@ -0,0 +1,59 @@
+package archive;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.LongAdder;
+import pgn.PgnGame;
+import pgn.PgnReader;
+
+/**
+ * Converte PGN para o formato binário: {@code java archive.PgnToArchive entrada.pgn saida.cga}.
+ * A leitura e a codificação rodam em paralelo; a gravação mantém a ordem do PGN.
+ */
+public final class PgnToArchive {
+
+    private PgnToArchive() {}
+
+    /** Partidas gravadas e recusadas (FEN inválido ou lance que não se aplica). */
+    public record Conversion(long games, long rejected) {}
+
+    /** Uma partida que não pode ser gravada é contada e pulada; as outras seguem. */
+    public static Conversion convert(Path pgnFile, Path archiveFile) throws IOException {
+        LongAdder rejected = new LongAdder();
+        try (PgnReader reader = new PgnReader(pgnFile);
+             GameArchiveWriter writer = new GameArchiveWriter(archiveFile)) {
+            reader.games().parallel()
+                    .map(GameArchiveWriter::encode)
+                    .forEachOrdered(rec -> {
+                        if (rec == null) {
+                            rejected.increment();
+                            return;
+                        }
+                        try {
+                            writer.appendEncoded(rec);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+            return new Conversion(writer.count(), rejected.sum());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("uso: java archive.PgnToArchive entrada.pgn saida.cga");
+            return;
+        }
+        Path in = Path.of(args[0]), out = Path.of(args[1]);
+        long t0 = System.nanoTime();
+        Conversion c = convert(in, out);
+        double s = (System.nanoTime() - t0) / 1e9;
+        System.out.printf("%d partidas em %.2f s: %,d bytes (PGN %,d bytes)%n",
+                c.games(), s, Files.size(out) + Files.size(GameArchiveWriter.indexPath(out)), Files.size(in));
+        if (c.rejected() > 0) System.out.printf("%d partidas recusadas (FEN inválido ou lance inaplicável)%n", c.rejected());
+    }
+}
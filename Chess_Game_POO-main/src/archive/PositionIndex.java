@@ -0,0 +1,168 @@
+package archive;
+
+import controller.Game;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Índice de posições fora do heap: registros (hash Zobrist, partida, ply)
+ * ordenados por hash num arquivo mapeado em memória. A consulta usa busca por
+ * interpolação (hashes são uniformes) com recuo para busca binária.
+ *
+ * <pre>
+ * cabeçalho: int magic "PIX1", int versão, long nRegistros
+ * registro:  long hash, long (partida &lt;&lt; 16 | ply)      (little-endian)
+ * </pre>
+ */
+public class PositionIndex implements Closeable {
+
+    static final int MAGIC = 0x3158_4950; // "PIX1"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int RECORD = 16;
+
+    /** Registros por região mapeada (1 GiB), já que um mapeamento é limitado a 2 GiB. */
+    private static final long RECORDS_PER_MAP = (1L << 30) / RECORD;
+
+    /** Uma ocorrência da posição: partida e ply (0 = posição inicial). */
+    public static final class Posting {
+        private final long gameId;
+        private final int ply;
+
+        Posting(long gameId, int ply) {
+            this.gameId = gameId;
+            this.ply = ply;
+        }
+
+        public long getGameId() { return gameId; }
+        public int getPly() { return ply; }
+
+        @Override
+        public String toString() {
+            return "partida " + gameId + ", ply " + ply;
+        }
+    }
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] maps;
+    private final long count;
+
+    public PositionIndex(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        ByteBuffer h = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        channel.read(h, 0);
+        h.flip();
+        if (h.remaining() < HEADER_SIZE || h.getInt() != MAGIC) {
+            channel.close();
+            throw new IOException("Índice de posições inválido: " + file);
+        }
+        h.getInt();
+        this.count = h.getLong();
+
+        int regions = (int) ((count + RECORDS_PER_MAP - 1) / RECORDS_PER_MAP);
+        this.maps = new MappedByteBuffer[regions];
+        for (int i = 0; i < regions; i++) {
+            long first = i * RECORDS_PER_MAP;
+            long len = Math.min(RECORDS_PER_MAP, count - first) * RECORD;
+            maps[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + first * RECORD, len);
+            maps[i].order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    public long size() { return count; }
+
+    /** Partidas (e plies) que passaram pela posição atual de {@code game}. */
+    public List<Posting> lookup(Game game) {
+        return lookup(game.zobristHash());
+    }
+
+    /** Todas as ocorrências do hash, em ordem de (partida, ply). */
+    public List<Posting> lookup(long hash) {
+        List<Posting> out = new ArrayList<>();
+        long i = lowerBound(hash);
+        for (; i < count && hashAt(i) == hash; i++) {
+            long p = payloadAt(i);
+            out.add(new Posting(p >>> 16, (int) (p & 0xFFFF)));
+        }
+        return out;
+    }
+
+    /** Primeiro registro com hash >= {@code key}. */
+    private long lowerBound(long key) {
+        long lo = 0, hi = count; // [lo, hi)
+        // Interpolação enquanto a faixa é grande; depois binária
+        while (hi - lo > 64) {
+            long hLo = hashAt(lo), hHi = hashAt(hi - 1);
+            if (key <= hLo) return lo;
+            if (key > hHi) return hi;
+            double frac = ((double) key - (double) hLo) / ((double) hHi - (double) hLo);
+            long guess = lo + (long) (frac * (hi - 1 - lo));
+            guess = Math.max(lo + 1, Math.min(hi - 2, guess));
+            if (hashAt(guess) < key) {
+                lo = guess + 1;
+                // salto exponencial curto para fechar a faixa
+                long step = 32;
+                while (lo + step < hi && hashAt(lo + step) < key) {
+                    lo += step + 1;
+                    step <<= 1;
+                }
+                hi = Math.min(hi, lo + step + 1);
+            } else {
+                hi = guess + 1;
+                long step = 32;
+                while (hi - step - 1 > lo && hashAt(hi - step - 1) >= key) {
+                    hi -= step + 1;
+                    step <<= 1;
+                }
+                lo = Math.max(lo, hi - step - 1);
+            }
+        }
+        while (lo < hi) {
+            long mid = (lo + hi) >>> 1;
+            if (hashAt(mid) < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private long hashAt(long i) {
+        return maps[(int) (i / RECORDS_PER_MAP)].getLong((int) (i % RECORDS_PER_MAP) * RECORD);
+    }
+
+    private long payloadAt(long i) {
+        return maps[(int) (i / RECORDS_PER_MAP)].getLong((int) (i % RECORDS_PER_MAP) * RECORD + 8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // ---------- Usado pelo construtor do índice ----------
+
+    static long payload(long gameId, int ply) {
+        return (gameId << 16) | Math.min(ply, 0xFFFF);
+    }
+
+    static ByteBuffer header(long count) {
+        ByteBuffer h = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        h.putInt(MAGIC).putInt(VERSION).putLong(count);
+        return h;
+    }
+
+    static void patchCount(Path file, long count) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer h = header(count);
+            h.flip();
+            while (h.hasRemaining()) ch.write(h, h.position());
+        }
+    }
+}
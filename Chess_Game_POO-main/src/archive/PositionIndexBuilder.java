@@ -0,0 +1,285 @@
+package archive;
+
+import controller.Game;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Constrói o índice de posições (hash Zobrist → partida, ply) de um arquivo
+ * de partidas, por ordenação externa:
+ * <ol>
+ *   <li>threads reproduzem faixas de partidas em {@link Game} e acumulam
+ *       postings num buffer primitivo de tamanho fixo;</li>
+ *   <li>buffer cheio → ordena e grava uma "run" temporária;</li>
+ *   <li>as runs são intercaladas (k-way merge) no arquivo final, em passadas
+ *       de no máximo {@link #MAX_FAN_IN} runs.</li>
+ * </ol>
+ * A memória usada é {@code threads × postingsPerRun × 16} bytes,
+ * independente do tamanho do arquivo.
+ */
+public class PositionIndexBuilder {
+
+    /** Runs abertas ao mesmo tempo numa passada do merge (descritores e buffers de 64 KiB). */
+    static final int MAX_FAN_IN = 64;
+
+    private final int threads;
+    private final int postingsPerRun;
+
+    public PositionIndexBuilder(int threads, int postingsPerRun) {
+        this.threads = Math.max(1, threads);
+        this.postingsPerRun = Math.max(1024, postingsPerRun);
+    }
+
+    public PositionIndexBuilder() {
+        this(Runtime.getRuntime().availableProcessors(), 4 << 20);
+    }
+
+    /** @return número de postings gravados */
+    public long build(Path archiveFile, Path indexFile) throws IOException {
+        Path tmp = Files.createTempDirectory(indexFile.toAbsolutePath().getParent(), "posidx");
+        List<Path> runs = new ArrayList<>();
+        try (GameArchiveReader reader = new GameArchiveReader(archiveFile)) {
+            long n = reader.size();
+            AtomicLong next = new AtomicLong();
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<List<Path>>> parts = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    int worker = t;
+                    parts.add(pool.submit(() -> collect(reader, n, next, tmp, worker)));
+                }
+                for (Future<List<Path>> f : parts) runs.addAll(f.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Construção do índice interrompida", e);
+            } catch (ExecutionException e) {
+                Throwable c = e.getCause();
+                if (c instanceof UncheckedIOException u) throw u.getCause();
+                if (c instanceof IOException io) throw io;
+                throw new IOException(c);
+            } finally {
+                pool.shutdown();
+            }
+            return merge(runs, indexFile, tmp);
+        } finally {
+            try (Stream<Path> left = Files.list(tmp)) {
+                for (Path r : (Iterable<Path>) left::iterator) Files.deleteIfExists(r);
+            }
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /** Trabalho de uma thread: pega blocos de partidas, gera postings e grava runs. */
+    private List<Path> collect(GameArchiveReader reader, long n, AtomicLong next, Path tmp, int worker)
+            throws IOException {
+        RunBuffer buf = new RunBuffer(postingsPerRun, tmp, worker);
+        final int block = 64;
+        long start;
+        while ((start = next.getAndAdd(block)) < n) {
+            long end = Math.min(n, start + block);
+            for (long id = start; id < end; id++) {
+                long gameId = id;
+                reader.get(id, (game, ply) -> buf.add(game.zobristHash(), PositionIndex.payload(gameId, ply)));
+            }
+        }
+        buf.flush();
+        return buf.runs;
+    }
+
+    /** Buffer primitivo de postings de uma thread; ao encher vira uma run ordenada em disco. */
+    private static final class RunBuffer {
+        final long[] hashes;
+        final long[] payloads;
+        final Path tmp;
+        final int worker;
+        final List<Path> runs = new ArrayList<>();
+        int size;
+
+        RunBuffer(int capacity, Path tmp, int worker) {
+            this.hashes = new long[capacity];
+            this.payloads = new long[capacity];
+            this.tmp = tmp;
+            this.worker = worker;
+        }
+
+        void add(long hash, long payload) {
+            if (size == hashes.length) flush();
+            hashes[size] = hash;
+            payloads[size] = payload;
+            size++;
+        }
+
+        void flush() {
+            if (size == 0) return;
+            try {
+                runs.add(writeRun(hashes, payloads, size, tmp, worker, runs.size()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            size = 0;
+        }
+    }
+
+    private static Path writeRun(long[] hashes, long[] payloads, int size, Path tmp, int worker, int seq)
+            throws IOException {
+        sort(hashes, payloads, 0, size - 1);
+        Path run = tmp.resolve("run-" + worker + "-" + seq + ".bin");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), 1 << 16))) {
+            for (int i = 0; i < size; i++) {
+                out.writeLong(hashes[i]);
+                out.writeLong(payloads[i]);
+            }
+        }
+        return run;
+    }
+
+    /**
+     * Intercala as runs ordenadas no arquivo final (cabeçalho + registros de 16 bytes).
+     * Com mais de {@link #MAX_FAN_IN} runs, intercala em passadas: cada grupo vira
+     * uma run intermediária em {@code tmp}, até restar um número que caiba numa passada.
+     */
+    private static long merge(List<Path> runs, Path indexFile, Path tmp) throws IOException {
+        for (int pass = 0; runs.size() > MAX_FAN_IN; pass++) {
+            List<Path> next = new ArrayList<>();
+            for (int i = 0; i < runs.size(); i += MAX_FAN_IN) {
+                List<Path> group = runs.subList(i, Math.min(runs.size(), i + MAX_FAN_IN));
+                Path run = tmp.resolve("merge-" + pass + "-" + next.size() + ".bin");
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), 1 << 16))) {
+                    mergeRuns(group, out, false);
+                }
+                for (Path r : group) Files.deleteIfExists(r);
+                next.add(run);
+            }
+            runs = next;
+        }
+        long count;
+        try (OutputStream os = Files.newOutputStream(indexFile);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os, 1 << 16))) {
+            ByteBuffer header = PositionIndex.header(0);
+            out.write(header.array());
+            // registros little-endian, como o leitor mapeado espera
+            count = mergeRuns(runs, out, true);
+        }
+        PositionIndex.patchCount(indexFile, count);
+        return count;
+    }
+
+    /** k-way merge de {@code runs} em {@code out}; runs intermediárias ficam big-endian como as de {@link #writeRun}. */
+    private static long mergeRuns(List<Path> runs, DataOutputStream out, boolean littleEndian) throws IOException {
+        PriorityQueue<RunCursor> heap = new PriorityQueue<>();
+        List<RunCursor> open = new ArrayList<>();
+        long count = 0;
+        try {
+            for (Path r : runs) {
+                RunCursor c = new RunCursor(Files.newInputStream(r));
+                open.add(c);
+                if (c.advance()) heap.add(c);
+            }
+            while (!heap.isEmpty()) {
+                RunCursor c = heap.poll();
+                out.writeLong(littleEndian ? Long.reverseBytes(c.hash) : c.hash);
+                out.writeLong(littleEndian ? Long.reverseBytes(c.payload) : c.payload);
+                count++;
+                if (c.advance()) heap.add(c);
+            }
+        } finally {
+            for (RunCursor c : open) c.close();
+        }
+        return count;
+    }
+
+    private static final class RunCursor implements Comparable<RunCursor> {
+        private final DataInputStream in;
+        long hash, payload;
+
+        RunCursor(InputStream is) {
+            this.in = new DataInputStream(new BufferedInputStream(is, 1 << 16));
+        }
+
+        boolean advance() throws IOException {
+            try {
+                hash = in.readLong();
+                payload = in.readLong();
+                return true;
+            } catch (EOFException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public int compareTo(RunCursor o) {
+            int c = Long.compare(hash, o.hash);
+            return c != 0 ? c : Long.compare(payload, o.payload);
+        }
+
+        void close() throws IOException {
+            in.close();
+        }
+    }
+
+    // ---------- Ordenação de arrays paralelos (hash, payload) ----------
+
+    private static void sort(long[] h, long[] p, int lo, int hi) {
+        while (hi - lo > 16) {
+            int mid = (lo + hi) >>> 1;
+            long ph = h[mid], pp = p[mid];
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (less(h[i], p[i], ph, pp)) i++;
+                while (less(ph, pp, h[j], p[j])) j--;
+                if (i <= j) swap(h, p, i++, j--);
+            }
+            // recursão no menor lado, laço no maior (pilha O(log n))
+            if (j - lo < hi - i) {
+                sort(h, p, lo, j);
+                lo = i;
+            } else {
+                sort(h, p, i, hi);
+                hi = j;
+            }
+        }
+        for (int i = lo + 1; i <= hi; i++) {
+            for (int k = i; k > lo && less(h[k], p[k], h[k - 1], p[k - 1]); k--) swap(h, p, k, k - 1);
+        }
+    }
+
+    private static boolean less(long h1, long p1, long h2, long p2) {
+        return h1 < h2 || (h1 == h2 && p1 < p2);
+    }
+
+    private static void swap(long[] h, long[] p, int i, int j) {
+        long t = h[i]; h[i] = h[j]; h[j] = t;
+        t = p[i]; p[i] = p[j]; p[j] = t;
+    }
+
+    /** {@code java archive.PositionIndexBuilder partidas.cga posicoes.pidx [threads]} */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("uso: java archive.PositionIndexBuilder partidas.cga posicoes.pidx [threads]");
+            return;
+        }
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long t0 = System.nanoTime();
+        long n = new PositionIndexBuilder(threads, 4 << 20).build(Path.of(args[0]), Path.of(args[1]));
+        System.out.printf("%,d postings em %.2f s%n", n, (System.nanoTime() - t0) / 1e9);
+    }
+}
@@ -0,0 +1,211 @@
+package bench;
+
+import ai.Evaluator;
+import ai.IANivel2;
+import ai.IANivel3;
+import ai.SearchLimits;
+import controller.Game;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Regressão de tempo até a profundidade: cada IA busca as
+ * {@link BenchPositions} a uma profundidade fixa. O total de nós é a
+ * assinatura da engine (as buscas são determinísticas); tempo, nós por
+ * segundo, memória alocada e pico de heap dizem se ela ficou mais rápida ou
+ * mais lenta com a mesma força.
+ * <pre>
+ * java bench.DepthBench [-depth 3] [-reps 3] [-out bench.tsv] [-base anterior.tsv] [-tol 10]
+ * </pre>
+ * Cada posição é buscada {@code reps} vezes e vale o menor tempo, o que tira
+ * boa parte do ruído da máquina. O resultado vai para um TSV (uma linha por
+ * posição e uma de total por engine). Com uma execução anterior como base,
+ * compara os totais e marca: nós diferentes (a busca mudou, tempos não são
+ * comparáveis), tempo, alocação ou pico de heap acima da tolerância (em %).
+ * Sai com status 1 se marcou algo.
+ * <p>
+ * O IANivel2 tem profundidade fixa própria (dois lances); a profundidade
+ * informada vale para o IANivel3. A linha IANivel3/nnue só aparece com uma
+ * rede treinada em {@code -Dai.nnue.file=...}.
+ */
+public final class DepthBench {
+
+    private static final String HEADER = "tipo\tengine\tposicao\tprofundidade\tnos\tms\tnps\talloc_mb\theap_mb";
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean t ? t : null;
+
+    /** Uma IA sob teste: busca a posição e devolve os nós visitados. */
+    private interface Engine {
+        long search(Game g, int depth);
+    }
+
+    private record Total(long nodes, double millis, double allocMb, double heapMb) {}
+
+    private DepthBench() {}
+
+    public static void main(String[] args) throws IOException {
+        int depth = 3, reps = 3;
+        Path outFile = Path.of("bench.tsv"), baseFile = null;
+        double tolerance = 0.10;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "-depth" -> depth = Integer.parseInt(args[i + 1]);
+                case "-reps" -> reps = Math.max(1, Integer.parseInt(args[i + 1]));
+                case "-out" -> outFile = Path.of(args[i + 1]);
+                case "-base" -> baseFile = Path.of(args[i + 1]);
+                case "-tol" -> tolerance = Double.parseDouble(args[i + 1]) / 100;
+                default -> throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+            }
+        }
+
+        Map<String, Engine> engines = new LinkedHashMap<>();
+        IANivel2 nivel2 = new IANivel2();
+        engines.put("IANivel2", (g, d) -> {
+            nivel2.makeMove(g);
+            return nivel2.getNodes();
+        });
+        // Sem arquivo de pesos a "nnue" é a rede substituta (só PSQT): fica fora da comparação
+        String[] evals = System.getProperty("ai.nnue.file") != null
+                ? new String[] { "classic", "nnue" } : new String[] { "classic" };
+        for (String eval : evals) {
+            IANivel3 nivel3 = new IANivel3(Evaluator.named(eval));
+            engines.put("IANivel3/" + eval, (g, d) -> {
+                nivel3.search(g, SearchLimits.depth(d), null);
+                return nivel3.getNodes();
+            });
+        }
+
+        List<String> fens = BenchPositions.FENS;
+        Map<String, Total> totals = new LinkedHashMap<>();
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(outFile, StandardCharsets.UTF_8))) {
+            out.printf(Locale.ROOT, "# bench.DepthBench profundidade=%d repeticoes=%d posicoes=%d java=%s data=%s%n",
+                    depth, reps, fens.size(), System.getProperty("java.version"), LocalDateTime.now().withNano(0));
+            out.println(HEADER);
+            for (Map.Entry<String, Engine> e : engines.entrySet()) {
+                String name = e.getKey();
+                Engine engine = e.getValue();
+                // Aquecimento (JIT) fora da medição
+                for (String fen : fens) engine.search(Game.fromFen(fen), Math.max(1, depth - 1));
+
+                System.gc();
+                resetPeakHeap();
+                long nodes = 0;
+                double millis = 0, allocMb = 0;
+                for (int i = 0; i < fens.size(); i++) {
+                    long n = 0;
+                    double ms = Double.MAX_VALUE, mb = 0;
+                    for (int k = 0; k < reps; k++) {
+                        Game g = Game.fromFen(fens.get(i));
+                        long a0 = allocatedBytes();
+                        long t0 = System.nanoTime();
+                        n = engine.search(g, depth);
+                        ms = Math.min(ms, (System.nanoTime() - t0) / 1e6);
+                        mb = (allocatedBytes() - a0) / 1048576.0;
+                    }
+                    nodes += n;
+                    millis += ms;
+                    allocMb += mb;
+                    out.printf(Locale.ROOT, "pos\t%s\t%d\t%d\t%d\t%.3f\t%d\t%.3f\t-%n",
+                            name, i, depth, n, ms, nps(n, ms), mb);
+                }
+                Total t = new Total(nodes, millis, allocMb, peakHeapBytes() / 1048576.0);
+                totals.put(name, t);
+                out.printf(Locale.ROOT, "total\t%s\t-\t%d\t%d\t%.3f\t%d\t%.3f\t%.1f%n",
+                        name, depth, nodes, millis, nps(nodes, millis), allocMb, t.heapMb());
+                System.out.printf(Locale.ROOT, "%-18s %,12d nós %,9.0f ms %,10d nós/s %,9.1f MB alocados  pico de heap %,.1f MB%n",
+                        name, nodes, millis, nps(nodes, millis), allocMb, t.heapMb());
+            }
+        }
+        System.out.println("Resultado em " + outFile);
+
+        if (baseFile != null && compare(readTotals(baseFile, depth), totals, tolerance) > 0) System.exit(1);
+    }
+
+    /** Compara com a base e imprime as marcas; devolve quantas houve. */
+    private static int compare(Map<String, Total> base, Map<String, Total> now, double tolerance) {
+        int flags = 0;
+        System.out.printf(Locale.ROOT, "Comparação com a base (tolerância %.0f%%):%n", tolerance * 100);
+        for (Map.Entry<String, Total> e : now.entrySet()) {
+            Total b = base.get(e.getKey());
+            Total t = e.getValue();
+            if (b == null) {
+                System.out.printf("  %-18s sem base%n", e.getKey());
+                continue;
+            }
+            List<String> marks = new ArrayList<>();
+            if (t.nodes() != b.nodes()) {
+                marks.add(String.format(Locale.ROOT, "NÓS MUDARAM (%,d → %,d): a busca mudou", b.nodes(), t.nodes()));
+            } else if (t.millis() > b.millis() * (1 + tolerance)) {
+                marks.add(String.format(Locale.ROOT, "MAIS LENTO %+.1f%%", pct(b.millis(), t.millis())));
+            }
+            if (t.allocMb() > b.allocMb() * (1 + tolerance)) {
+                marks.add(String.format(Locale.ROOT, "ALOCAÇÃO %+.1f%%", pct(b.allocMb(), t.allocMb())));
+            }
+            if (t.heapMb() > b.heapMb() * (1 + tolerance)) {
+                marks.add(String.format(Locale.ROOT, "HEAP %+.1f%%", pct(b.heapMb(), t.heapMb())));
+            }
+            flags += marks.size();
+            System.out.printf(Locale.ROOT, "  %-18s tempo %+.1f%%  alocação %+.1f%%  heap %+.1f%%  %s%n", e.getKey(),
+                    pct(b.millis(), t.millis()), pct(b.allocMb(), t.allocMb()), pct(b.heapMb(), t.heapMb()),
+                    marks.isEmpty() ? "ok" : String.join("; ", marks));
+        }
+        return flags;
+    }
+
+    private static Map<String, Total> readTotals(Path file, int depth) throws IOException {
+        Map<String, Total> out = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String[] f = line.split("\t");
+            if (f.length < 9 || !f[0].equals("total")) continue;
+            if (Integer.parseInt(f[3]) != depth) {
+                throw new IllegalArgumentException("A base foi medida com profundidade " + f[3] + ", não " + depth);
+            }
+            out.put(f[1], new Total(Long.parseLong(f[4]), Double.parseDouble(f[5]),
+                    Double.parseDouble(f[7]), Double.parseDouble(f[8])));
+        }
+        return out;
+    }
+
+    private static double pct(double before, double after) {
+        return before == 0 ? 0 : (after - before) / before * 100;
+    }
+
+    private static long nps(long nodes, double millis) {
+        return millis <= 0 ? 0 : (long) (nodes * 1000 / millis);
+    }
+
+    // ---------- Memória ----------
+
+    /** Bytes alocados até agora pela thread atual (0 se a JVM não informa). */
+    private static long allocatedBytes() {
+        return THREADS == null ? 0 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static void resetPeakHeap() {
+        for (MemoryPoolMXBean p : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (p.getType() == MemoryType.HEAP) p.resetPeakUsage();
+        }
+    }
+
+    /** Soma dos picos das áreas do heap desde o último {@link #resetPeakHeap()}. */
+    private static long peakHeapBytes() {
+        long sum = 0;
+        for (MemoryPoolMXBean p : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (p.getType() == MemoryType.HEAP) sum += p.getPeakUsage().getUsed();
+        }
+        return sum;
+    }
+}
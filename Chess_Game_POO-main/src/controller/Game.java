@@ -4,35 +4,45 @@ import ai.IANivel2;
 import ai.IANivel3;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Stack;
+import model.board.Attacks;
 import model.board.Board;
-import model.board.Move;
+import model.board.MoveCode;
 import model.board.Position;
+import model.board.Zobrist;
 import model.pieces.*;
+import trace.ChessEvents;
 
 public class Game {
 
-    private final Stack<Move> historyStack = new Stack<>();
     private Board board;
     private boolean whiteToMove = true;
     private boolean gameOver = false;
 
     private Position enPassantTarget = null;
-    private final List<String> history = new ArrayList<>();
+    private int halfmoveClock = 0;     // meios-lances desde a última captura/lance de peão
+    private int fullmoveNumber = 1;    // incrementa após o lance das pretas
+    private MoveHistory history = MoveHistory.EMPTY;
+    private int[] legalCodes; // lances legais do lado a jogar (MoveCode, ordenados); null = a calcular
+    private PositionKeys keys;   // hashes das posições da partida, para repetição
+    private int drawMarker;      // 0, ou o marcador de empate do MoveHistory
+    private volatile PositionSnapshot snapshot; // publicada a cada mudança de posição
 
     public Game() {
         this.board = new Board();
         setupPieces();
+        publish();
+        this.keys = PositionKeys.root(snapshot.hash());
     }
 
+    /**
+     * Desfaz o último lance. Reproduz a partida desde o início; para navegar
+     * numa partida longa use {@link GameTimeline}.
+     */
     public void undoLastMove() {
-        if (!historyStack.isEmpty()) {
-            Move lastMove = historyStack.pop();
-            board.put(lastMove.getTo(), lastMove.captured);
-            board.put(lastMove.from, lastMove.moving);
-        }
+        int plies = plyCount();
+        if (plies > 0) goToPly(plies - 1);
     }
 
     private Game(boolean empty) { /* intentionally empty */ }
@@ -40,28 +50,323 @@ public class Game {
     public Board board() { return board; }
     public boolean whiteToMove() { return whiteToMove; }
     public boolean isGameOver() { return gameOver; }
-    public List<String> history() { return Collections.unmodifiableList(history); }
+    /** Lances em SAN (com "+"/"#") e marcadores de fim; gerados na primeira leitura. */
+    public List<String> history() { return history.toList(); }
+    /** Número de lances jogados (sem contar marcadores de fim em {@link #history()}). */
+    public int plyCount() { return history.plies(); }
+    /** Lances jogados, em ordem, como {@link MoveCode}. */
+    public int[] moveCodes() { return history.moveCodes(); }
+    /** Último lance jogado ({@link MoveCode}), ou -1. */
+    public int lastMoveCode() { return history.lastMoveCode(); }
+    public Position enPassantTarget() { return enPassantTarget; }
+    public int halfmoveClock() { return halfmoveClock; }
+    public int fullmoveNumber() { return fullmoveNumber; }
 
     public void newGame() {
         this.board = new Board();
         this.whiteToMove = true;
         this.gameOver = false;
         this.enPassantTarget = null;
-        this.history.clear();
+        this.halfmoveClock = 0;
+        this.fullmoveNumber = 1;
+        this.history = MoveHistory.EMPTY;
+        this.legalCodes = null;
+        this.drawMarker = 0;
         setupPieces();
+        publish();
+        this.keys = PositionKeys.root(snapshot.hash());
+    }
+
+    public static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    /** Cria uma partida a partir de um FEN, já detectando mate/afogamento. */
+    public static Game fromFen(CharSequence fen) {
+        Game g = new Game(true);
+        g.board = new Board();
+        g.loadFen(fen);
+        g.checkGameEnd(false, true);
+        return g;
+    }
+
+    /**
+     * Carrega a posição de um FEN nesta partida, reaproveitando o Board.
+     * Lê o CharSequence direto (sem regex/split); os relógios são
+     * opcionais. Os direitos de roque viram os flags {@code moved} do rei e das
+     * torres. Caminho rápido para carga em massa: não verifica fim de jogo
+     * (use {@link #fromFen} quando isso importar). Com FEN inválido a partida
+     * fica como estava.
+     *
+     * @throws IllegalArgumentException se o FEN for inválido
+     */
+    public void loadFen(CharSequence fen) {
+        // Tudo é lido em variáveis locais; a partida só muda com o FEN inteiro válido
+        int n = fen.length();
+        int placement = skipSpaces(fen, 0);
+        int i = Board.checkFenPlacement(fen, placement);
+
+        i = skipSpaces(fen, i);
+        if (i >= n || (fen.charAt(i) != 'w' && fen.charAt(i) != 'b')) {
+            throw new IllegalArgumentException("FEN sem lado a jogar: " + fen);
+        }
+        boolean white = fen.charAt(i++) == 'w';
+
+        boolean wk = false, wq = false, bk = false, bq = false;
+        i = skipSpaces(fen, i);
+        for (; i < n && fen.charAt(i) != ' '; i++) {
+            switch (fen.charAt(i)) {
+                case 'K' -> wk = true;
+                case 'Q' -> wq = true;
+                case 'k' -> bk = true;
+                case 'q' -> bq = true;
+                case '-' -> { }
+                default -> throw new IllegalArgumentException("FEN com roque inválido: " + fen);
+            }
+        }
+
+        Position ep = null;
+        i = skipSpaces(fen, i);
+        if (i < n && fen.charAt(i) != '-') {
+            if (i + 1 >= n) throw new IllegalArgumentException("FEN com en passant inválido: " + fen);
+            char file = fen.charAt(i), rank = fen.charAt(i + 1);
+            if (file < 'a' || file > 'h' || (rank != '3' && rank != '6')) {
+                throw new IllegalArgumentException("FEN com en passant inválido: " + fen);
+            }
+            if (rank != (white ? '6' : '3')) {
+                throw new IllegalArgumentException("FEN com en passant incompatível com o lado a jogar: " + fen);
+            }
+            ep = new Position(8 - (rank - '0'), file - 'a');
+            i += 2;
+        } else if (i < n) {
+            i++;
+        }
+
+        int half = 0, full = 1;
+        i = skipSpaces(fen, i);
+        if (i < n) {
+            for (; i < n && fen.charAt(i) != ' '; i++) half = half * 10 + digit(fen, i);
+            i = skipSpaces(fen, i);
+            if (i < n) {
+                full = 0;
+                for (; i < n && fen.charAt(i) != ' '; i++) full = full * 10 + digit(fen, i);
+            }
+        }
+
+        board.loadFenPlacement(fen, placement);
+        applyCastlingRights(wk, wq, bk, bq);
+        this.whiteToMove = white;
+        this.enPassantTarget = ep;
+        this.halfmoveClock = half;
+        this.fullmoveNumber = Math.max(1, full);
+        this.gameOver = false;
+        this.history = MoveHistory.startingAt(fen.toString());
+        this.legalCodes = null;
+        this.drawMarker = 0;
+        publish();
+        this.keys = PositionKeys.root(snapshot.hash());
+    }
+
+    /** Serializa a posição atual em FEN. */
+    public String toFen() {
+        StringBuilder sb = new StringBuilder(90);
+        board.appendFenPlacement(sb);
+        sb.append(whiteToMove ? " w " : " b ");
+        int len = sb.length();
+        if (hasCastlingRight(true, 7)) sb.append('K');
+        if (hasCastlingRight(true, 0)) sb.append('Q');
+        if (hasCastlingRight(false, 7)) sb.append('k');
+        if (hasCastlingRight(false, 0)) sb.append('q');
+        if (sb.length() == len) sb.append('-');
+        sb.append(' ').append(enPassantTarget == null ? "-" : coord(enPassantTarget));
+        sb.append(' ').append(halfmoveClock).append(' ').append(fullmoveNumber);
+        return sb.toString();
+    }
+
+    /** Direitos de roque atuais: bits 1 = K, 2 = Q, 4 = k, 8 = q. */
+    public int castlingRights() {
+        int rights = 0;
+        if (hasCastlingRight(true, 7)) rights |= 1;
+        if (hasCastlingRight(true, 0)) rights |= 2;
+        if (hasCastlingRight(false, 7)) rights |= 4;
+        if (hasCastlingRight(false, 0)) rights |= 8;
+        return rights;
+    }
+
+    /**
+     * Hash Zobrist da posição (peças, lado, roque e en passant). A casa de
+     * en passant só entra quando algum peão pode de fato capturar nela, para
+     * que posições iguais tenham o mesmo hash.
+     */
+    public long zobristHash() {
+        return Zobrist.hash(board, whiteToMove, castlingRights(), hashEpFile());
+    }
+
+    /** Coluna de en passant para o hash, ou -1 se nenhum peão pode capturar. */
+    private int hashEpFile() {
+        int epFile = -1;
+        if (enPassantTarget != null) {
+            int dir = whiteToMove ? 1 : -1; // peões do lado a jogar ficam atrás da casa alvo
+            int r = enPassantTarget.getRow() + dir;
+            for (int dc = -1; dc <= 1; dc += 2) {
+                Piece p = board.get(r, enPassantTarget.getColumn() + dc);
+                if (p instanceof Pawn && p.isWhite() == whiteToMove) epFile = enPassantTarget.getColumn();
+            }
+        }
+        return epFile;
+    }
+
+    /**
+     * Posição atual como valor imutável. É trocada (referência volátil) a cada
+     * lance, então pode ser lida de qualquer thread sem sincronização; a mesma
+     * instância indica a mesma posição.
+     */
+    public PositionSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /** Fotografa a posição atual e a publica (o hash sai da mesma passada pelo tabuleiro). */
+    private void publish() {
+        int ep = enPassantTarget == null ? -1 : enPassantTarget.getRow() * 8 + enPassantTarget.getColumn();
+        snapshot = PositionSnapshot.capture(board, whiteToMove, castlingRights(), ep, hashEpFile(),
+                halfmoveClock, fullmoveNumber);
+    }
+
+    /** Reflete os direitos de roque nos flags moved (e marca o resto coerentemente). */
+    private void applyCastlingRights(boolean wk, boolean wq, boolean bk, boolean bq) {
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                Piece p = board.get(r, c);
+                if (p == null) continue;
+                boolean w = p.isWhite();
+                int home = w ? 7 : 0;
+                if (p instanceof Pawn) {
+                    p.setMoved(r != (w ? 6 : 1));
+                } else if (p instanceof King) {
+                    boolean rights = w ? (wk || wq) : (bk || bq);
+                    p.setMoved(!(rights && r == home && c == 4));
+                } else if (p instanceof Rook) {
+                    boolean right = (r == home) && ((c == 7 && (w ? wk : bk)) || (c == 0 && (w ? wq : bq)));
+                    p.setMoved(!right);
+                } else {
+                    p.setMoved(false);
+                }
+            }
+        }
+    }
+
+    private boolean hasCastlingRight(boolean white, int rookCol) {
+        int row = white ? 7 : 0;
+        Piece k = board.get(row, 4);
+        Piece r = board.get(row, rookCol);
+        return k instanceof King && k.isWhite() == white && !k.hasMoved()
+                && r instanceof Rook && r.isWhite() == white && !r.hasMoved();
+    }
+
+    private static int skipSpaces(CharSequence s, int i) {
+        while (i < s.length() && s.charAt(i) == ' ') i++;
+        return i;
+    }
+
+    private static int digit(CharSequence s, int i) {
+        char ch = s.charAt(i);
+        if (ch < '0' || ch > '9') throw new IllegalArgumentException("FEN com relógio inválido: " + s);
+        return ch - '0';
     }
 
     // New method: a public gateway for move legality checks.
     public boolean isLegal(Position from, Position to) {
-        Piece p = board.get(from);
-        if (p == null || p.isWhite() != whiteToMove) {
-            return false;
-        }
-        return legalMovesFrom(from).contains(to);
+        return hasLegalMove(from.getRow() * 8 + from.getColumn(), to.getRow() * 8 + to.getColumn());
     }
 
+    /** Destinos legais da peça em {@code from} (vazio se não for do lado a jogar). */
     public List<Position> legalMovesFrom(Position from) {
-        return legalMovesFromWithSpecials(from);
+        int[] codes = legalCodes();
+        int fromSq = from.getRow() * 8 + from.getColumn();
+        int i = Arrays.binarySearch(codes, MoveCode.encode(fromSq, 0, 0));
+        if (i < 0) i = -i - 1;
+        List<Position> out = new ArrayList<>();
+        int lastTo = -1;
+        for (; i < codes.length && MoveCode.fromSquare(codes[i]) == fromSq; i++) {
+            int toSq = MoveCode.toSquare(codes[i]);
+            if (toSq != lastTo) out.add(MoveCode.to(codes[i])); // promoções: um destino só
+            lastTo = toSq;
+        }
+        return out;
+    }
+
+    /**
+     * Todos os lances legais do lado a jogar como {@link MoveCode}, em ordem
+     * crescente; promoções aparecem uma vez por peça (N, B, R, Q).
+     */
+    public int[] legalMoveCodes() {
+        return legalCodes().clone();
+    }
+
+    /**
+     * Lista de lances legais da posição, gerada uma vez e reaproveitada até o
+     * próximo lance por fim de jogo, validação de lances e {@link #legalMovesFrom}.
+     * O array nunca é alterado, então as cópias de {@link #snapshotShallow} o compartilham.
+     */
+    private int[] legalCodes() {
+        if (legalCodes == null) legalCodes = generateLegalCodes();
+        return legalCodes;
+    }
+
+    /**
+     * Usa a lista em cache se existir; senão para na primeira peça com lance
+     * legal (bem mais barato que gerar a lista inteira, que a busca pode nem
+     * pedir nas folhas).
+     */
+    private boolean hasAnyLegalMove() {
+        if (legalCodes != null) return legalCodes.length > 0;
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                Piece p = board.get(r, c);
+                if (p != null && p.isWhite() == whiteToMove
+                        && !legalMovesFromWithSpecials(new Position(r, c)).isEmpty()) {
+                    return true;
+                }
+            }
+        }
+        legalCodes = new int[0]; // sem lances: a lista vazia já é a lista completa
+        return false;
+    }
+
+    private boolean hasLegalMove(int fromSq, int toSq) {
+        int[] codes = legalCodes();
+        int key = MoveCode.encode(fromSq, toSq, 0);
+        int i = Arrays.binarySearch(codes, key);
+        if (i >= 0) return true;
+        i = -i - 1; // promoções: mesmo (origem, destino) com peça != 0
+        return i < codes.length && (codes[i] >>> 3) == (key >>> 3);
+    }
+
+    private int[] generateLegalCodes() {
+        int[] codes = new int[64];
+        int n = 0;
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                Piece p = board.get(r, c);
+                if (p == null || p.isWhite() != whiteToMove) continue;
+                Position from = new Position(r, c);
+                int fromSq = r * 8 + c;
+                for (Position to : legalMovesFromWithSpecials(from)) {
+                    int toSq = to.getRow() * 8 + to.getColumn();
+                    boolean promo = (p instanceof Pawn) && isPromotion(from, to);
+                    for (int k = promo ? 1 : 0; k <= (promo ? 4 : 0); k++) {
+                        if (n == codes.length) codes = Arrays.copyOf(codes, n * 2);
+                        codes[n++] = MoveCode.encode(fromSq, toSq, k);
+                    }
+                }
+            }
+        }
+        codes = Arrays.copyOf(codes, n);
+        Arrays.sort(codes);
+        return codes;
+    }
+
+    /** Aplica um lance codificado com {@link MoveCode} (mesma validação de {@link #move}). */
+    public void move(int code) {
+        move(MoveCode.from(code), MoveCode.to(code), MoveCode.promotion(code));
     }
 
     public boolean isPromotion(Position from, Position to) {
@@ -70,14 +375,44 @@ public class Game {
         return p.isWhite() ? to.getRow() == 0 : to.getRow() == 7;
     }
 
+    /**
+     * Executa o lance (se legal). Não monta notação: o histórico guarda só o
+     * código do lance e o SAN é gerado quando {@link #history()} é lido.
+     */
     public void move(Position from, Position to, Character promotion) {
+        // O evento não sai deste método: desligado, a JIT elimina a alocação
+        ChessEvents.MoveApplied ev = new ChessEvents.MoveApplied();
+        boolean timed = ev.isEnabled();
+        ev.begin();
         if (gameOver) return;
-
         Piece p = board.get(from);
         if (p == null || p.isWhite() != whiteToMove) return;
 
-        List<Position> legal = legalMovesFromWithSpecials(from);
-        if (!legal.contains(to)) return;
+        long t0 = timed ? System.nanoTime() : 0;
+        if (!hasLegalMove(from.getRow() * 8 + from.getColumn(), to.getRow() * 8 + to.getColumn())) return;
+        long t1 = timed ? System.nanoTime() : 0;
+
+        int end = apply(from, to, promotion, p);
+        long t2 = timed ? System.nanoTime() : 0;
+        if (end != NO_END_CHECK) checkGameEnd(true, end == END_CHECK_MATERIAL);
+        long t3 = timed ? System.nanoTime() : 0;
+
+        if (ev.shouldCommit()) {
+            ev.ply = plyCount();
+            ev.code = lastMoveCode();
+            ev.legalityNanos = t1 - t0;
+            ev.endCheckNanos = t3 - t2;
+            ev.gameOver = gameOver;
+            ev.commit();
+        }
+    }
+
+    /** Retornos de {@link #apply}: que checagem de fim de partida o lance pede. */
+    private static final int NO_END_CHECK = 0, END_CHECK = 1, END_CHECK_MATERIAL = 2;
+
+    /** Executa o lance já validado, sem checar o fim da partida. */
+    private int apply(Position from, Position to, Character promotion, Piece p) {
+        legalCodes = null;
 
         boolean isKing = p instanceof King;
         boolean isPawn = p instanceof Pawn;
@@ -88,47 +423,30 @@ public class Game {
 
         if (isKing && dCol == 2) {
             int row = from.getRow();
-            historyStack.push(new Move(from, to, p, capturedBefore, false, false, false, promotion));
             board.set(to, p);
             board.set(from, null);
             p.setMoved(true);
 
-            String san;
-            if (to.getColumn() == 6) {
-                Piece rook = board.get(new Position(row, 7));
-                board.set(new Position(row, 5), rook);
-                board.set(new Position(row, 7), null);
-                if (rook != null) rook.setMoved(true);
-                san = "O-O";
-            } else {
-                Piece rook = board.get(new Position(row, 0));
-                board.set(new Position(row, 3), rook);
-                board.set(new Position(row, 0), null);
-                if (rook != null) rook.setMoved(true);
-                san = "O-O-O";
-            }
+            int rookFrom = (to.getColumn() == 6) ? 7 : 0;
+            int rookTo = (to.getColumn() == 6) ? 5 : 3;
+            Piece rook = board.get(new Position(row, rookFrom));
+            board.set(new Position(row, rookTo), rook);
+            board.set(new Position(row, rookFrom), null);
+            if (rook != null) rook.setMoved(true);
 
             enPassantTarget = null;
+            advanceClocks(false);
             whiteToMove = !whiteToMove;
-
-            if (isCheckmate(whiteToMove)) {
-                san += "#";
-                gameOver = true;
-            } else if (inCheck(whiteToMove)) {
-                san += "+";
-            }
-            addHistory(san);
-
-            if (!gameOver) checkGameEnd();
-            return;
+            recordMove(from, to, null);
+            publish();
+            keys = keys.push(snapshot.hash());
+            return END_CHECK;
         }
 
         boolean diagonal = from.getColumn() != to.getColumn();
         boolean toIsEmpty = board.get(to) == null;
         boolean isEnPassant = isPawn && diagonal && toIsEmpty && to.equals(enPassantTarget);
 
-        String moveStr;
-
         if (isEnPassant) {
             board.set(to, p);
             board.set(from, null);
@@ -136,23 +454,16 @@ public class Game {
             Position victim = new Position(to.getRow() + dir, to.getColumn());
             board.set(victim, null);
             p.setMoved(true);
-            moveStr = coord(from) + "x" + coord(to) + " e.p.";
             enPassantTarget = null;
-            
+            advanceClocks(true);
             whiteToMove = !whiteToMove;
-
-            if (isCheckmate(whiteToMove)) {
-                moveStr += "#";
-                gameOver = true;
-            } else if (inCheck(whiteToMove)) {
-                moveStr += "+";
-            }
-            addHistory(moveStr);
-
-            if (!gameOver) checkGameEnd();
-            return;
+            recordMove(from, to, null);
+            publish();
+            keys = keys.push(snapshot.hash());
+            return END_CHECK_MATERIAL;
         }
 
+        Character promoted = null;
         if (isPawn && isPromotion(from, to)) {
             char ch = (promotion == null) ? 'Q' : Character.toUpperCase(promotion);
             Piece np = switch (ch) {
@@ -164,28 +475,18 @@ public class Game {
             np.setMoved(true);
             board.set(from, null);
             board.set(to, np);
-
-            if (targetIsKing) {
-                String san = coord(from) + "x" + coord(to) + "=" + np.getSymbol() + "#";
-                addHistory(san);
-                gameOver = true;
-                return;
-            }
-
-            moveStr = coord(from) + (capturedBefore != null ? "x" : "-") + coord(to) + "=" + np.getSymbol();
+            promoted = np.getSymbol().charAt(0);
         } else {
             board.set(to, p);
             board.set(from, null);
             p.setMoved(true);
+        }
 
-            if (targetIsKing) {
-                String san = coord(from) + "x" + coord(to) + "#";
-                addHistory(san);
-                gameOver = true;
-                return;
-            }
-
-            moveStr = coord(from) + (capturedBefore != null ? "x" : "-") + coord(to);
+        if (targetIsKing) {
+            recordMove(from, to, promoted);
+            gameOver = true;
+            publish();
+            return NO_END_CHECK;
         }
 
         if (isPawn && Math.abs(to.getRow() - from.getRow()) == 2) {
@@ -195,17 +496,12 @@ public class Game {
             enPassantTarget = null;
         }
 
+        advanceClocks(isPawn || capturedBefore != null);
         whiteToMove = !whiteToMove;
-
-        if (isCheckmate(whiteToMove)) {
-            moveStr += "#";
-            gameOver = true;
-        } else if (inCheck(whiteToMove)) {
-            moveStr += "+";
-        }
-
-        addHistory(moveStr);
-        if (!gameOver) checkGameEnd();
+        recordMove(from, to, promoted);
+        publish();
+        keys = keys.push(snapshot.hash());
+        return (capturedBefore != null || promoted != null) ? END_CHECK_MATERIAL : END_CHECK;
     }
 
     public boolean inCheck(boolean whiteSide) {
@@ -216,6 +512,7 @@ public class Game {
 
     public boolean isCheckmate(boolean whiteSide) {
         if (!inCheck(whiteSide)) return false;
+        if (whiteSide == whiteToMove) return !hasAnyLegalMove();
 
         for (int row = 0; row < 8; row++) {
             for (int col = 0; col < 8; col++) {
@@ -233,30 +530,119 @@ public class Game {
         return true;
     }
 
-    private void checkGameEnd() {
-        if (isCheckmate(whiteToMove)) {
+    /**
+     * Mate/afogamento numa só passada: existe lance legal? Se não, um único
+     * teste de xeque decide entre os dois. Depois os empates automáticos:
+     * material insuficiente (só quando o material mudou), regra dos 75
+     * lances e repetição quíntupla. A repetição tripla e a regra dos 50
+     * lances precisam ser reivindicadas ({@link #claimDraw()}): a partida
+     * continua e quem joga decide.
+     *
+     * @param afterMove se o mate veio do último lance (o "#" já aparece no SAN, sem marcador)
+     * @param materialChanged se houve captura ou promoção (ou é uma posição nova)
+     */
+    private void checkGameEnd(boolean afterMove, boolean materialChanged) {
+        if (!hasAnyLegalMove()) {
             gameOver = true;
-            addHistory("Checkmate: " + (whiteToMove ? "White" : "Black") + " loses");
+            if (inCheck(whiteToMove)) {
+                if (!afterMove) history = history.append(MoveHistory.CHECKMATE);
+            } else {
+                draw(MoveHistory.STALEMATE);
+            }
             return;
         }
+        if (materialChanged && isInsufficientMaterial()) draw(MoveHistory.INSUFFICIENT_MATERIAL);
+        else if (halfmoveClock >= 150) draw(MoveHistory.SEVENTY_FIVE_MOVES);
+        else if (halfmoveClock >= 16 && repetitionCount() >= 5) draw(MoveHistory.FIVEFOLD_REPETITION);
+    }
 
-        if (!inCheck(whiteToMove)) {
-            boolean hasAny = false;
-            for (int r = 0; r < 8 && !hasAny; r++) {
-                for (int c = 0; c < 8 && !hasAny; c++) {
-                    Position from = new Position(r, c);
-                    Piece piece = board.get(from);
-                    if (piece != null && piece.isWhite() == whiteToMove) {
-                        if (!legalMovesFromWithSpecials(from).isEmpty()) {
-                            hasAny = true;
-                        }
-                    }
+    private void draw(int marker) {
+        gameOver = true;
+        drawMarker = marker;
+        history = history.append(marker);
+    }
+
+    /** Fim de jogo por empate (afogamento, material, 75 lances, repetição quíntupla ou empate reivindicado). */
+    public boolean isDraw() { return drawMarker != 0; }
+
+    /** Motivo do empate para exibição, ou null. */
+    public String drawReason() {
+        switch (drawMarker) {
+            case MoveHistory.STALEMATE: return "afogamento";
+            case MoveHistory.REPETITION: return "repetição tripla";
+            case MoveHistory.FIFTY_MOVES: return "regra dos 50 lances";
+            case MoveHistory.INSUFFICIENT_MATERIAL: return "material insuficiente";
+            case MoveHistory.FIVEFOLD_REPETITION: return "repetição quíntupla";
+            case MoveHistory.SEVENTY_FIVE_MOVES: return "regra dos 75 lances";
+            default: return null;
+        }
+    }
+
+    /**
+     * O lado a jogar pode reivindicar empate agora: repetição tripla ou 50
+     * lances sem captura nem lance de peão. Só informa; a partida segue até
+     * alguém chamar {@link #claimDraw()}.
+     */
+    public boolean canClaimDraw() {
+        return !gameOver && (halfmoveClock >= 100 || isThreefoldRepetition());
+    }
+
+    /**
+     * Encerra a partida em empate reivindicado, se {@link #canClaimDraw()}.
+     * @return se o empate foi aceito
+     */
+    public boolean claimDraw() {
+        if (!canClaimDraw()) return false;
+        draw(halfmoveClock >= 100 ? MoveHistory.FIFTY_MOVES : MoveHistory.REPETITION);
+        return true;
+    }
+
+    /**
+     * Quantas vezes a posição atual já ocorreu na partida (contando esta).
+     * Percorre só os lances desde a última captura/lance de peão, no máximo
+     * 150 pela regra dos 75 lances.
+     */
+    public int repetitionCount() {
+        return keys.occurrences(halfmoveClock);
+    }
+
+    public boolean isThreefoldRepetition() {
+        return halfmoveClock >= 8 && repetitionCount() >= 3;
+    }
+
+    /**
+     * Nenhum lado consegue dar mate: só reis e, no máximo, uma peça menor,
+     * ou só bispos, todos em casas da mesma cor. A assinatura de peças
+     * menores (cavalos/bispos de cada lado) é consultada numa tabela.
+     */
+    public boolean isInsufficientMaterial() {
+        int wn = 0, wb = 0, bn = 0, bb = 0, bishopColors = 0;
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                Piece p = board.get(r, c);
+                if (p == null || p instanceof King) continue;
+                if (p instanceof Knight) {
+                    if (p.isWhite()) wn++; else bn++;
+                } else if (p instanceof Bishop) {
+                    if (p.isWhite()) wb++; else bb++;
+                    bishopColors |= ((r + c) & 1) == 0 ? 1 : 2;
+                } else {
+                    return false; // peão, torre ou dama
                 }
             }
-            if (!hasAny) {
-                gameOver = true;
-                addHistory("Draw: stalemate");
-            }
+        }
+        if (wn + bn == 0 && bishopColors != 3) return true;
+        if ((wn | wb | bn | bb) > 3) return false;
+        return DEAD_MINORS[wn | wb << 2 | bn << 4 | bb << 6];
+    }
+
+    /** Assinatura de peças menores (2 bits cada: N, B brancos; N, B pretos) → sem mate possível. */
+    private static final boolean[] DEAD_MINORS = new boolean[256];
+
+    static {
+        for (int sig = 0; sig < 256; sig++) {
+            int minors = (sig & 3) + (sig >> 2 & 3) + (sig >> 4 & 3) + (sig >> 6 & 3);
+            DEAD_MINORS[sig] = minors <= 1;
         }
     }
 
@@ -321,6 +707,9 @@ public class Game {
 // Mantenha o restante do código da classe Game intacto
 // e substitua apenas o método isSquareAttacked() por este:
 
+private static final int[][] ROOK_DIRS = {{-1,0}, {1,0}, {0,-1}, {0,1}};
+private static final int[][] BISHOP_DIRS = {{-1,-1}, {-1,1}, {1,-1}, {1,1}};
+
 /**
  * Verifica se a casa especificada está sob ataque de uma peça do lado oposto.
  * @param sq A posição a ser verificada.
@@ -330,60 +719,37 @@ public class Game {
 public boolean isSquareAttacked(Position sq, boolean sideToProtect) {
     int r = sq.getRow();
     int c = sq.getColumn();
+    int s = r * 8 + c;
 
-    // Verificação de ataque por PEÕES (melhorada)
-    int pawnDir = sideToProtect ? -1 : 1;
-    Position leftAttack  = new Position(r + pawnDir, c - 1);
-    Position rightAttack = new Position(r + pawnDir, c + 1);
-
-    if (leftAttack.isValid()) {
-        Piece p = board.get(leftAttack);
+    // PEÕES, CAVALOS e REIS: tabelas pré-calculadas (Attacks), sem alocar
+    for (long m = Attacks.pawn(sideToProtect, s); m != 0; m &= m - 1) {
+        int from = Long.numberOfTrailingZeros(m);
+        Piece p = board.get(from >> 3, from & 7);
         if (p instanceof Pawn && p.isWhite() != sideToProtect) {
             return true;
         }
     }
-    if (rightAttack.isValid()) {
-        Piece p = board.get(rightAttack);
-        if (p instanceof Pawn && p.isWhite() != sideToProtect) {
+    for (long m = Attacks.knight(s); m != 0; m &= m - 1) {
+        int from = Long.numberOfTrailingZeros(m);
+        Piece p = board.get(from >> 3, from & 7);
+        if (p instanceof Knight && p.isWhite() != sideToProtect) {
             return true;
         }
     }
-
-    // Verificação de ataque por CAVALOS
-    int[][] knightJumps = {{-2,-1},{-2,1},{-1,-2},{-1,2},{1,-2},{1,2},{2,-1},{2,1}};
-    for (int[] d : knightJumps) {
-        int rr = r + d[0];
-        int cc = c + d[1];
-        if (rr >= 0 && rr < 8 && cc >= 0 && cc < 8) {
-            Piece p = board.get(new Position(rr, cc));
-            if (p instanceof Knight && p.isWhite() != sideToProtect) {
-                return true;
-            }
-        }
-    }
-
-    // Verificação de ataque por REIS (para prevenir movimentos adjacentes)
-    for (int dr = -1; dr <= 1; dr++) {
-        for (int dc = -1; dc <= 1; dc++) {
-            if (dr == 0 && dc == 0) continue;
-            int rr = r + dr;
-            int cc = c + dc;
-            if (rr >= 0 && rr < 8 && cc >= 0 && cc < 8) {
-                Piece p = board.get(new Position(rr, cc));
-                if (p instanceof King && p.isWhite() != sideToProtect) {
-                    return true;
-                }
-            }
+    for (long m = Attacks.king(s); m != 0; m &= m - 1) {
+        int from = Long.numberOfTrailingZeros(m);
+        Piece p = board.get(from >> 3, from & 7);
+        if (p instanceof King && p.isWhite() != sideToProtect) {
+            return true;
         }
     }
 
     // Verificação de ataque por TORRES e RAINHAS (horizontal/vertical)
-    int[][] rookDirs = {{-1,0}, {1,0}, {0,-1}, {0,1}};
-    for (int[] d : rookDirs) {
+    for (int[] d : ROOK_DIRS) {
         int rr = r + d[0];
         int cc = c + d[1];
         while (rr >= 0 && rr < 8 && cc >= 0 && cc < 8) {
-            Piece p = board.get(new Position(rr, cc));
+            Piece p = board.get(rr, cc);
             if (p != null) {
                 if (p.isWhite() != sideToProtect && (p instanceof Rook || p instanceof Queen)) {
                     return true;
@@ -396,12 +762,11 @@ public boolean isSquareAttacked(Position sq, boolean sideToProtect) {
     }
 
     // Verificação de ataque por BISPOS e RAINHAS (diagonais)
-    int[][] bishopDirs = {{-1,-1}, {-1,1}, {1,-1}, {1,1}};
-    for (int[] d : bishopDirs) {
+    for (int[] d : BISHOP_DIRS) {
         int rr = r + d[0];
         int cc = c + d[1];
         while (rr >= 0 && rr < 8 && cc >= 0 && cc < 8) {
-            Piece p = board.get(new Position(rr, cc));
+            Piece p = board.get(rr, cc);
             if (p != null) {
                 if (p.isWhite() != sideToProtect && (p instanceof Bishop || p instanceof Queen)) {
                     return true;
@@ -419,6 +784,7 @@ public boolean isSquareAttacked(Position sq, boolean sideToProtect) {
     private void forceMoveNoChecks(Position from, Position to) {
         Piece p = board.get(from);
         if (p == null) return;
+        legalCodes = null;
 
         int dCol = Math.abs(to.getColumn() - from.getColumn());
         boolean isPawn = p instanceof Pawn;
@@ -471,20 +837,79 @@ public boolean isSquareAttacked(Position sq, boolean sideToProtect) {
         return null;
     }
 
-    private Game snapshotShallow() {
+    /**
+     * Volta a partida para depois do lance {@code ply} (0 = posição inicial),
+     * descartando os lances seguintes. Reproduz a partida desde o FEN inicial.
+     */
+    public void goToPly(int ply) {
+        int[] codes = history.moveCodes();
+        if (ply < 0 || ply > codes.length) {
+            throw new IndexOutOfBoundsException("Ply " + ply + " de " + codes.length);
+        }
+        String fen = history.startFen();
+        Game g = (fen == null) ? new Game() : fromFen(fen);
+        for (int i = 0; i < ply; i++) g.move(codes[i]);
+        copyFrom(g);
+    }
+
+    /** Passa a ter o estado de {@code other} (que não deve mais ser alterada por quem a criou). */
+    public void copyFrom(Game other) {
+        board = other.board;
+        whiteToMove = other.whiteToMove;
+        gameOver = other.gameOver;
+        enPassantTarget = other.enPassantTarget;
+        halfmoveClock = other.halfmoveClock;
+        fullmoveNumber = other.fullmoveNumber;
+        history = other.history;
+        legalCodes = other.legalCodes;
+        keys = other.keys;
+        drawMarker = other.drawMarker;
+        snapshot = other.snapshot;
+    }
+
+    /** Estado compacto desta posição para a {@link GameTimeline}. */
+    GameTimeline.Checkpoint checkpoint() {
+        return new GameTimeline.Checkpoint(toFen(), history, keys, gameOver, drawMarker);
+    }
+
+    /** Recria a partida de um checkpoint, com histórico e hashes de repetição. */
+    static Game fromCheckpoint(GameTimeline.Checkpoint c) {
+        Game g = new Game(true);
+        g.board = new Board();
+        g.loadFen(c.fen);
+        g.history = c.history;
+        g.keys = c.keys;
+        g.gameOver = c.gameOver;
+        g.drawMarker = c.drawMarker;
+        return g;
+    }
+
+    public Game snapshotShallow() {
         Game g = new Game(true);
         g.board = this.board.copy();
         g.whiteToMove = this.whiteToMove;
         g.gameOver = this.gameOver;
+        g.halfmoveClock = this.halfmoveClock;
+        g.fullmoveNumber = this.fullmoveNumber;
         g.enPassantTarget = (this.enPassantTarget == null)
                 ? null
                 : new Position(this.enPassantTarget.getRow(), this.enPassantTarget.getColumn());
-        g.history.addAll(this.history);
+        g.history = this.history;
+        g.legalCodes = this.legalCodes;
+        g.keys = this.keys;
+        g.drawMarker = this.drawMarker;
+        g.snapshot = this.snapshot;
         return g;
     }
 
-    private void addHistory(String moveStr) {
-        history.add(moveStr);
+    /** Atualiza os relógios do FEN antes de trocar o lado a jogar. */
+    private void advanceClocks(boolean irreversible) {
+        halfmoveClock = irreversible ? 0 : halfmoveClock + 1;
+        if (!whiteToMove) fullmoveNumber++;
+    }
+
+    private void recordMove(Position from, Position to, Character promotion) {
+        history = history.append(MoveCode.encode(from, to, promotion));
     }
 
     private String coord(Position p) {
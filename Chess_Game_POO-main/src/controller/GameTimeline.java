@@ -0,0 +1,132 @@
+package controller;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Linha do tempo de uma partida para navegação por ply: guarda os lances e,
+ * a cada {@code interval} plies, um checkpoint compacto (FEN + nós
+ * persistentes do histórico e dos hashes de repetição, compartilhados e não
+ * copiados). Ir a qualquer ply restaura o checkpoint anterior e reproduz no
+ * máximo {@code interval - 1} lances, seja qual for o tamanho da partida.
+ * <p>
+ * A posição final é mantida viva ({@link #end()}), então acrescentar lances é
+ * o custo de um {@link Game#move}. Não é thread-safe.
+ */
+public final class GameTimeline {
+
+    public static final int DEFAULT_INTERVAL = 16;
+
+    /** Estado de uma posição: o suficiente para recriar o {@link Game} inteiro. */
+    static final class Checkpoint {
+        final String fen;
+        final MoveHistory history;
+        final PositionKeys keys;
+        final boolean gameOver;
+        final int drawMarker;
+
+        Checkpoint(String fen, MoveHistory history, PositionKeys keys, boolean gameOver, int drawMarker) {
+            this.fen = fen;
+            this.history = history;
+            this.keys = keys;
+            this.gameOver = gameOver;
+            this.drawMarker = drawMarker;
+        }
+    }
+
+    private final int interval;
+    private Game end;
+    private int[] codes = new int[64];
+    private int length;
+    private Checkpoint[] checkpoints = new Checkpoint[8]; // [k] = posição no ply k * interval
+
+    /** Linha do tempo que começa na posição atual de {@code start} (a partida não é alterada). */
+    public GameTimeline(Game start, int interval) {
+        if (interval < 1) throw new IllegalArgumentException("Intervalo inválido: " + interval);
+        this.interval = interval;
+        this.end = start.snapshotShallow();
+        checkpoints[0] = end.checkpoint();
+    }
+
+    public GameTimeline(Game start) {
+        this(start, DEFAULT_INTERVAL);
+    }
+
+    /** Linha do tempo com todos os lances de {@code game}, desde a sua posição inicial. */
+    public static GameTimeline of(Game game) {
+        Game start = game.snapshotShallow();
+        start.goToPly(0);
+        GameTimeline t = new GameTimeline(start);
+        for (int code : game.moveCodes()) t.append(code);
+        return t;
+    }
+
+    /** Número de lances na linha do tempo. */
+    public int length() {
+        return length;
+    }
+
+    /** Lance {@code ply} (1..length), como {@link model.board.MoveCode}. */
+    public int codeAt(int ply) {
+        if (ply < 1 || ply > length) throw new IndexOutOfBoundsException("Ply " + ply + " de " + length);
+        return codes[ply - 1];
+    }
+
+    /** Posição final (viva: não alterar; use {@link #append}). */
+    public Game end() {
+        return end;
+    }
+
+    /** Histórico em texto da linha inteira (ver {@link Game#history()}). */
+    public List<String> history() {
+        return end.history();
+    }
+
+    /**
+     * Acrescenta um lance no fim.
+     *
+     * @throws IllegalArgumentException se o lance for ilegal na posição final
+     */
+    public void append(int code) {
+        int before = end.plyCount();
+        end.move(code);
+        if (end.plyCount() == before) {
+            throw new IllegalArgumentException("Lance ilegal no ply " + (length + 1) + ": " + code);
+        }
+        if (length == codes.length) codes = Arrays.copyOf(codes, length * 2);
+        codes[length++] = code;
+        if (length % interval == 0) {
+            int k = length / interval;
+            if (k == checkpoints.length) checkpoints = Arrays.copyOf(checkpoints, k * 2);
+            checkpoints[k] = end.checkpoint();
+        }
+    }
+
+    /** Reivindica empate na posição final ({@link Game#claimDraw()}); devolve se foi aceito. */
+    public boolean claimDraw() {
+        return end.claimDraw();
+    }
+
+    /** Descarta os lances depois de {@code ply}; o fim passa a ser essa posição. */
+    public void truncate(int ply) {
+        checkPly(ply);
+        if (ply == length) return;
+        end = gameAt(ply);
+        for (int k = ply / interval + 1; k <= length / interval; k++) checkpoints[k] = null;
+        length = ply;
+    }
+
+    /** Nova partida (independente) na posição depois do lance {@code ply} (0 = inicial). */
+    public Game gameAt(int ply) {
+        checkPly(ply);
+        if (ply == length) return end.snapshotShallow();
+        int k = ply / interval;
+        Game g = Game.fromCheckpoint(checkpoints[k]);
+        for (int i = k * interval; i < ply; i++) g.move(codes[i]);
+        return g;
+    }
+
+    private void checkPly(int ply) {
+        if (ply < 0 || ply > length) throw new IndexOutOfBoundsException("Ply " + ply + " de " + length);
+    }
+}
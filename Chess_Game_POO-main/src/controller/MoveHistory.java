@@ -0,0 +1,160 @@
+package controller;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Histórico de lances persistente: lista ligada imutável em que cada lance
+ * aponta para o histórico anterior. Acrescentar cria um nó (O(1)) e as cópias
+ * de {@link Game} compartilham os nós em vez de copiar a lista, então o custo
+ * por nó de busca não cresce com o tamanho da partida.
+ * <p>
+ * Cada nó guarda só o código do lance ({@link model.board.MoveCode}) ou um
+ * marcador de fim de jogo; o texto (SAN) é gerado sob demanda reproduzindo a
+ * partida a partir da posição inicial, guardada na raiz. O último nó
+ * renderizado guarda também a posição final, para que o próximo texto pedido
+ * (tipicamente um ou dois lances depois, na GUI) seja só uma extensão dele.
+ */
+final class MoveHistory {
+
+    /**
+     * Marcadores de fim de jogo (não são lances). {@code REPETITION} e
+     * {@code FIFTY_MOVES} são empates reivindicados; os quíntuplos e de 75
+     * lances, automáticos.
+     */
+    static final int CHECKMATE = -1, STALEMATE = -2, REPETITION = -3, FIFTY_MOVES = -4, INSUFFICIENT_MATERIAL = -5,
+            FIVEFOLD_REPETITION = -6, SEVENTY_FIVE_MOVES = -7;
+
+    static final MoveHistory EMPTY = new MoveHistory(null, 0, null, 0);
+
+    /** Até quantos nós acima se procura um texto já renderizado para estender. */
+    private static final int MAX_EXTEND = 16;
+
+    private final String startFen; // só na raiz; null = posição inicial padrão
+    private final int entry;
+    private final MoveHistory prev;
+    private final int size;
+    private List<String> list; // montada sob demanda; corrida benigna (imutável)
+    private String[] text;     // o array por trás de list
+    private volatile Game end; // posição após a última entrada; só enquanto ninguém estendeu este nó
+
+    private MoveHistory(String startFen, int entry, MoveHistory prev, int size) {
+        this.startFen = startFen;
+        this.entry = entry;
+        this.prev = prev;
+        this.size = size;
+    }
+
+    /** Histórico vazio de uma partida que começa no FEN dado. */
+    static MoveHistory startingAt(String fen) {
+        return new MoveHistory(fen, 0, null, 0);
+    }
+
+    MoveHistory append(int codeOrMarker) {
+        return new MoveHistory(null, codeOrMarker, this, size + 1);
+    }
+
+    int size() { return size; }
+
+    /** Número de lances (entradas menos o marcador de fim, se houver). */
+    int plies() {
+        return (size > 0 && entry < 0) ? size - 1 : size;
+    }
+
+    /** Código do último lance, ou -1 se não houve lance. */
+    int lastMoveCode() {
+        MoveHistory h = (size > 0 && entry < 0) ? prev : this;
+        return h.size > 0 ? h.entry : -1;
+    }
+
+    /** FEN inicial da partida (guardado na raiz), ou null para a posição padrão. */
+    String startFen() {
+        MoveHistory h = this;
+        while (h.prev != null) h = h.prev;
+        return h.startFen;
+    }
+
+    /** Códigos dos lances, do primeiro ao último (sem marcadores). */
+    int[] moveCodes() {
+        int[] codes = new int[plies()];
+        for (MoveHistory h = this; h.prev != null; h = h.prev) {
+            if (h.entry >= 0) codes[h.size - 1] = h.entry;
+        }
+        return codes;
+    }
+
+    /** Lista (imutável) em texto, do primeiro ao último lance; gerada uma vez por nó. */
+    List<String> toList() {
+        List<String> l = list;
+        if (l == null) {
+            String[] t = render();
+            text = t;
+            l = Collections.unmodifiableList(Arrays.asList(t));
+            list = l;
+        }
+        return l;
+    }
+
+    private String[] render() {
+        // Extensão: um ancestral próximo já tem o texto e a posição final
+        MoveHistory base = prev;
+        for (int steps = 1; base != null && base.size > 0 && base.end == null && steps < MAX_EXTEND; steps++) {
+            base = base.prev;
+        }
+        Game from = (base != null && base.size > 0) ? base.end : null;
+        String[] prefix = (from != null) ? base.text : null;
+        if (prefix != null) {
+            int[] entries = new int[size - base.size];
+            for (MoveHistory h = this; h != base; h = h.prev) entries[h.size - base.size - 1] = h.entry;
+            Game g = from.snapshotShallow();
+            String[] out = Arrays.copyOf(prefix, size);
+            renderInto(g, entries, out, base.size);
+            // o texto e a posição passam para este nó: um array por nó seria O(n²) numa partida longa
+            base.end = null;
+            base.text = null;
+            base.list = null;
+            end = g;
+            return out;
+        }
+
+        int[] entries = new int[size];
+        MoveHistory root = this;
+        for (int i = size; root.size > 0; root = root.prev) entries[--i] = root.entry;
+
+        Game g = (root.startFen == null) ? new Game() : Game.fromFen(root.startFen);
+        String[] out = new String[size];
+        renderInto(g, entries, out, 0);
+        if (size > 0) end = g;
+        return out;
+    }
+
+    /** Reproduz {@code entries} em {@code g}, escrevendo o texto em {@code out[offset..]}. */
+    private static void renderInto(Game g, int[] entries, String[] out, int offset) {
+        for (int i = 0; i < entries.length; i++) {
+            int e = entries[i];
+            if (e == CHECKMATE) {
+                out[offset + i] = "Checkmate: " + (g.whiteToMove() ? "White" : "Black") + " loses";
+            } else if (e < 0) {
+                out[offset + i] = marker(e);
+            } else {
+                String san = San.format(g, e);
+                g.move(e);
+                boolean check = g.inCheck(g.whiteToMove());
+                out[offset + i] = check ? san + (g.isGameOver() && !g.isDraw() ? "#" : "+") : san;
+            }
+        }
+    }
+
+    private static String marker(int e) {
+        switch (e) {
+            case STALEMATE: return "Draw: stalemate";
+            case REPETITION: return "Draw: threefold repetition";
+            case FIFTY_MOVES: return "Draw: fifty-move rule";
+            case INSUFFICIENT_MATERIAL: return "Draw: insufficient material";
+            case FIVEFOLD_REPETITION: return "Draw: fivefold repetition";
+            case SEVENTY_FIVE_MOVES: return "Draw: seventy-five-move rule";
+            default: return "?";
+        }
+    }
+}
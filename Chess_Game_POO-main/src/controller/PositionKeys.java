@@ -0,0 +1,39 @@
+package controller;
+
+/**
+ * Pilha persistente dos hashes Zobrist das posições da partida (a mais
+ * recente no topo), compartilhada entre as cópias de {@link Game} como o
+ * {@link MoveHistory}. Empilhar é O(1).
+ */
+final class PositionKeys {
+
+    final long key;
+    final PositionKeys prev;
+
+    private PositionKeys(long key, PositionKeys prev) {
+        this.key = key;
+        this.prev = prev;
+    }
+
+    static PositionKeys root(long key) {
+        return new PositionKeys(key, null);
+    }
+
+    PositionKeys push(long k) {
+        return new PositionKeys(k, this);
+    }
+
+    /**
+     * Quantas vezes a posição do topo ocorreu, contando ela mesma. Só olha
+     * {@code reversiblePlies} para trás (nada se repete antes de uma captura
+     * ou lance de peão) e só posições com o mesmo lado a jogar.
+     */
+    int occurrences(int reversiblePlies) {
+        int count = 1;
+        PositionKeys k = prev;
+        for (int i = 1; k != null && i <= reversiblePlies; i++, k = k.prev) {
+            if ((i & 1) == 0 && k.key == key) count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,122 @@
+package controller;
+
+import model.board.Board;
+import model.board.Zobrist;
+import model.pieces.Piece;
+
+/**
+ * Fotografia imutável de uma posição: tabuleiro empacotado (um byte por
+ * casa), lado a jogar, direitos de roque, casa de en passant, relógios e hash
+ * Zobrist. {@link Game} publica uma nova a cada lance por uma referência
+ * volátil, então qualquer thread (busca, pintura da GUI, rede) pode lê-la sem
+ * travas enquanto a partida continua sendo jogada.
+ * <p>
+ * Casas: índice {@code row * 8 + col} (linha 0 = oitava fileira), como em
+ * {@link model.board.MoveCode}.
+ */
+public final class PositionSnapshot {
+
+    /** Letra FEN por código de casa (0 = vazia; 1..12 = {@link Zobrist#pieceIndex} + 1). */
+    private static final char[] FEN_CHARS = { 0, 'P', 'N', 'B', 'R', 'Q', 'K', 'p', 'n', 'b', 'r', 'q', 'k' };
+
+    private final byte[] squares;
+    private final boolean whiteToMove;
+    private final int castlingRights;
+    private final int epSquare;
+    private final int halfmoveClock;
+    private final int fullmoveNumber;
+    private final long hash;
+
+    private PositionSnapshot(byte[] squares, boolean whiteToMove, int castlingRights, int epSquare,
+                             int halfmoveClock, int fullmoveNumber, long hash) {
+        this.squares = squares;
+        this.whiteToMove = whiteToMove;
+        this.castlingRights = castlingRights;
+        this.epSquare = epSquare;
+        this.halfmoveClock = halfmoveClock;
+        this.fullmoveNumber = fullmoveNumber;
+        this.hash = hash;
+    }
+
+    /**
+     * Empacota o tabuleiro e calcula o hash na mesma passada.
+     *
+     * @param epSquare casa alvo de en passant (como no FEN), ou -1
+     * @param epFile coluna de en passant para o hash (só quando a captura é possível), ou -1
+     */
+    static PositionSnapshot capture(Board board, boolean whiteToMove, int castlingRights, int epSquare, int epFile,
+                                    int halfmoveClock, int fullmoveNumber) {
+        byte[] squares = new byte[64];
+        for (int sq = 0; sq < 64; sq++) {
+            Piece p = board.get(sq >> 3, sq & 7);
+            if (p != null) squares[sq] = (byte) (Zobrist.pieceIndex(p) + 1);
+        }
+        long hash = Zobrist.hash(squares, whiteToMove, castlingRights, epFile);
+        return new PositionSnapshot(squares, whiteToMove, castlingRights, epSquare, halfmoveClock, fullmoveNumber, hash);
+    }
+
+    /** Letra FEN da peça na casa ('P', 'n', ...), ou 0 se vazia. */
+    public char pieceAt(int sq) {
+        return FEN_CHARS[squares[sq]];
+    }
+
+    public char pieceAt(int row, int col) {
+        return pieceAt(row * 8 + col);
+    }
+
+    /** Código da peça na casa: 0 = vazia, senão {@link Zobrist#pieceIndex} + 1. */
+    public int codeAt(int sq) {
+        return squares[sq];
+    }
+
+    public boolean whiteToMove() { return whiteToMove; }
+    /** Bits 1 = K, 2 = Q, 4 = k, 8 = q. */
+    public int castlingRights() { return castlingRights; }
+    /** Casa alvo de en passant, ou -1. */
+    public int epSquare() { return epSquare; }
+    public int halfmoveClock() { return halfmoveClock; }
+    public int fullmoveNumber() { return fullmoveNumber; }
+    /** Hash Zobrist (o mesmo de {@link Game#zobristHash()}). */
+    public long hash() { return hash; }
+
+    /** Serializa em FEN (igual a {@link Game#toFen()} da posição fotografada). */
+    public String toFen() {
+        StringBuilder sb = new StringBuilder(90);
+        for (int r = 0; r < 8; r++) {
+            int empty = 0;
+            for (int c = 0; c < 8; c++) {
+                char ch = pieceAt(r, c);
+                if (ch == 0) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) sb.append(empty);
+                empty = 0;
+                sb.append(ch);
+            }
+            if (empty > 0) sb.append(empty);
+            if (r < 7) sb.append('/');
+        }
+        sb.append(whiteToMove ? " w " : " b ");
+        if (castlingRights == 0) sb.append('-');
+        if ((castlingRights & 1) != 0) sb.append('K');
+        if ((castlingRights & 2) != 0) sb.append('Q');
+        if ((castlingRights & 4) != 0) sb.append('k');
+        if ((castlingRights & 8) != 0) sb.append('q');
+        sb.append(' ');
+        if (epSquare < 0) sb.append('-');
+        else sb.append((char) ('a' + (epSquare & 7))).append(8 - (epSquare >> 3));
+        sb.append(' ').append(halfmoveClock).append(' ').append(fullmoveNumber);
+        return sb.toString();
+    }
+
+    /** Nova partida nesta posição (sem o histórico de lances anterior). */
+    public Game toGame() {
+        return Game.fromFen(toFen());
+    }
+
+    @Override
+    public String toString() {
+        return toFen();
+    }
+}
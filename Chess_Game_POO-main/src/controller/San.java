@@ -0,0 +1,160 @@
+package controller;
+
+import model.board.Move;
+import model.board.MoveCode;
+import model.board.Position;
+import model.pieces.King;
+import model.pieces.Pawn;
+import model.pieces.Piece;
+
+/**
+ * Notação algébrica padrão (SAN): interpreta e gera lances como "Nbd7",
+ * "exd5", "e8=Q", "O-O" no contexto de uma partida.
+ */
+public final class San {
+
+    private San() {}
+
+    /**
+     * SAN do lance ({@link MoveCode}) na posição atual de {@code game}, com
+     * desambiguação por coluna/linha; sem sufixo de xeque (depende da posição
+     * seguinte).
+     */
+    public static String format(Game game, int code) {
+        Position from = MoveCode.from(code), to = MoveCode.to(code);
+        Piece p = game.board().get(from);
+        if (p == null) return MoveCode.toUci(code);
+        boolean capture = game.board().get(to) != null;
+
+        StringBuilder sb = new StringBuilder(8);
+        if (p instanceof King && Math.abs(to.getColumn() - from.getColumn()) == 2) {
+            return to.getColumn() == 6 ? "O-O" : "O-O-O";
+        }
+        if (p instanceof Pawn) {
+            // captura de peão (inclui en passant, que vai para casa vazia)
+            if (from.getColumn() != to.getColumn()) sb.append((char) ('a' + from.getColumn())).append('x');
+        } else {
+            sb.append(p.getSymbol());
+            if (!(p instanceof King)) appendDisambiguation(sb, game, code, p);
+            if (capture) sb.append('x');
+        }
+        sb.append(to);
+        Character promo = MoveCode.promotion(code);
+        if (promo != null) sb.append('=').append(promo);
+        return sb.toString();
+    }
+
+    private static void appendDisambiguation(StringBuilder sb, Game game, int code, Piece p) {
+        int fromSq = MoveCode.fromSquare(code), toSq = MoveCode.toSquare(code);
+        boolean ambiguous = false, sameFile = false, sameRank = false;
+        for (int other : game.legalMoveCodes()) {
+            int o = MoveCode.fromSquare(other);
+            if (MoveCode.toSquare(other) != toSq || o == fromSq) continue;
+            Piece q = game.board().get(o >> 3, o & 7);
+            if (q == null || q.getClass() != p.getClass()) continue;
+            ambiguous = true;
+            if ((o & 7) == (fromSq & 7)) sameFile = true;
+            if ((o >> 3) == (fromSq >> 3)) sameRank = true;
+        }
+        if (!ambiguous) return;
+        if (!sameFile) {
+            sb.append((char) ('a' + (fromSq & 7)));
+        } else if (!sameRank) {
+            sb.append((char) ('8' - (fromSq >> 3)));
+        } else {
+            sb.append((char) ('a' + (fromSq & 7))).append((char) ('8' - (fromSq >> 3)));
+        }
+    }
+
+    /**
+     * Resolve um lance SAN na posição atual de {@code game}.
+     * Aceita sufixos de xeque/anotação (+, #, !, ?) e roque com 'O' ou '0'.
+     *
+     * @return o lance legal correspondente, ou null se inválido/ambíguo
+     */
+    public static Move parse(Game game, CharSequence san) {
+        int end = san.length();
+        while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) end--;
+        if (end < 2) return null;
+
+        boolean white = game.whiteToMove();
+        int row = white ? 7 : 0;
+        if (isCastle(san, end, 5)) return castle(game, row, 2, false);
+        if (isCastle(san, end, 3)) return castle(game, row, 6, true);
+
+        // Promoção: "e8=Q" ou "e8Q"
+        Character promo = null;
+        char last = san.charAt(end - 1);
+        if ("QRBN".indexOf(last) >= 0 && end >= 3
+                && (san.charAt(end - 2) == '=' || Character.isDigit(san.charAt(end - 2)))) {
+            promo = last;
+            end -= (san.charAt(end - 2) == '=') ? 2 : 1;
+        }
+        if (end < 2) return null;
+
+        char fileCh = san.charAt(end - 2), rankCh = san.charAt(end - 1);
+        if (fileCh < 'a' || fileCh > 'h' || rankCh < '1' || rankCh > '8') return null;
+        Position to = new Position(8 - (rankCh - '0'), fileCh - 'a');
+
+        int i = 0;
+        char type = 'P';
+        if ("KQRBN".indexOf(san.charAt(0)) >= 0) type = san.charAt(i++);
+
+        int fromFile = -1, fromRank = -1;
+        for (; i < end - 2; i++) {
+            char ch = san.charAt(i);
+            if (ch >= 'a' && ch <= 'h') fromFile = ch - 'a';
+            else if (ch >= '1' && ch <= '8') fromRank = 8 - (ch - '0');
+            else if (ch != 'x' && ch != ':' && ch != '-') return null;
+        }
+
+        Move found = null;
+        for (int r = 0; r < 8; r++) {
+            if (fromRank >= 0 && r != fromRank) continue;
+            for (int c = 0; c < 8; c++) {
+                if (fromFile >= 0 && c != fromFile) continue;
+                Piece p = game.board().get(r, c);
+                if (p == null || p.isWhite() != white || p.getSymbol().charAt(0) != type) continue;
+                Position from = new Position(r, c);
+                if (!game.legalMovesFrom(from).contains(to)) continue;
+                if (found != null) return null; // ambíguo
+                found = toMove(game, from, to, p, promo);
+            }
+        }
+        return found;
+    }
+
+    private static boolean isCastle(CharSequence s, int end, int len) {
+        if (end != len) return false;
+        for (int i = 0; i < len; i++) {
+            char ch = s.charAt(i);
+            boolean ok = (i % 2 == 0) ? (ch == 'O' || ch == '0') : ch == '-';
+            if (!ok) return false;
+        }
+        return true;
+    }
+
+    private static Move castle(Game game, int row, int toCol, boolean kingSide) {
+        Position from = new Position(row, 4);
+        Position to = new Position(row, toCol);
+        Piece k = game.board().get(from);
+        if (!(k instanceof King) || !game.legalMovesFrom(from).contains(to)) return null;
+        return Move.castle(from, to, k, kingSide);
+    }
+
+    private static Move toMove(Game game, Position from, Position to, Piece p, Character promo) {
+        Piece captured = game.board().get(to);
+        if (p instanceof Pawn) {
+            if (game.isPromotion(from, to)) {
+                return Move.promotion(from, to, p, captured, promo == null ? 'Q' : promo);
+            }
+            if (captured == null && from.getColumn() != to.getColumn()) {
+                return Move.enPassant(from, to, p, null);
+            }
+        }
+        if (p instanceof King && Math.abs(to.getColumn() - from.getColumn()) == 2) {
+            return Move.castle(from, to, p, to.getColumn() == 6);
+        }
+        return Move.normal(from, to, p, captured);
+    }
+}
@@ -0,0 +1,123 @@
+package explorer;
+
+/**
+ * Tabela hash primitiva (endereçamento aberto) de (posição, lance) para
+ * contadores vitória/empate/derrota, sem objetos por entrada. Não é
+ * thread-safe: cada thread acumula na sua e as tabelas são unidas com
+ * {@link #merge}.
+ */
+public final class OpeningCounts {
+
+    /** Índices dos contadores, do ponto de vista das brancas. */
+    public static final int WHITE_WINS = 0, DRAWS = 1, BLACK_WINS = 2;
+
+    private long[] positions;
+    private int[] moves;     // 0 = vazio (nenhum lance legal tem código 0: a8-a8)
+    private int[] counts;    // 3 por entrada
+    private int size;
+    private int mask;
+    private long skipped;    // partidas descartadas na agregação
+
+    public OpeningCounts() {
+        this(1 << 12);
+    }
+
+    public OpeningCounts(int expected) {
+        int cap = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+        allocate(cap);
+    }
+
+    private void allocate(int cap) {
+        positions = new long[cap];
+        moves = new int[cap];
+        counts = new int[cap * 3];
+        mask = cap - 1;
+        size = 0;
+    }
+
+    public int size() { return size; }
+
+    /** Conta uma partida que não pôde ser agregada (FEN inválido, PGN com erro). */
+    public void skipGame() { skipped++; }
+
+    public long skipped() { return skipped; }
+
+    /** Soma {@code n} ao contador {@code outcome} do lance {@code move} na posição. */
+    public void add(long position, int move, int outcome, int n) {
+        int i = slot(position, move);
+        if (moves[i] == 0) {
+            positions[i] = position;
+            moves[i] = move;
+            if (++size > (mask + 1) >> 1) {
+                rehash();
+                i = slot(position, move);
+            }
+        }
+        counts[i * 3 + outcome] += n;
+    }
+
+    /** Une {@code other} a esta tabela. */
+    public OpeningCounts merge(OpeningCounts other) {
+        for (int i = 0; i < other.moves.length; i++) {
+            if (other.moves[i] == 0) continue;
+            int j = slot(other.positions[i], other.moves[i]);
+            if (moves[j] == 0) {
+                positions[j] = other.positions[i];
+                moves[j] = other.moves[i];
+                if (++size > (mask + 1) >> 1) {
+                    rehash();
+                    j = slot(other.positions[i], other.moves[i]);
+                }
+            }
+            counts[j * 3] += other.counts[i * 3];
+            counts[j * 3 + 1] += other.counts[i * 3 + 1];
+            counts[j * 3 + 2] += other.counts[i * 3 + 2];
+        }
+        skipped += other.skipped;
+        return this;
+    }
+
+    /** Une as duas tabelas reaproveitando a maior. */
+    public static OpeningCounts combine(OpeningCounts a, OpeningCounts b) {
+        return a.size >= b.size ? a.merge(b) : b.merge(a);
+    }
+
+    /** Visita as entradas (ordem arbitrária). */
+    public void forEach(EntryVisitor visitor) {
+        for (int i = 0; i < moves.length; i++) {
+            if (moves[i] != 0) {
+                visitor.visit(positions[i], moves[i], counts[i * 3], counts[i * 3 + 1], counts[i * 3 + 2]);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface EntryVisitor {
+        void visit(long position, int move, int whiteWins, int draws, int blackWins);
+    }
+
+    private int slot(long position, int move) {
+        long h = (position ^ (move * 0x9E3779B97F4A7C15L)) * 0xBF58476D1CE4E5B9L;
+        int i = (int) (h >>> 32) & mask;
+        while (moves[i] != 0 && (moves[i] != move || positions[i] != position)) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    private void rehash() {
+        long[] oldPos = positions;
+        int[] oldMoves = moves;
+        int[] oldCounts = counts;
+        int n = size;
+        allocate(oldMoves.length * 2);
+        for (int i = 0; i < oldMoves.length; i++) {
+            if (oldMoves[i] == 0) continue;
+            int j = slot(oldPos[i], oldMoves[i]);
+            positions[j] = oldPos[i];
+            moves[j] = oldMoves[i];
+            System.arraycopy(oldCounts, i * 3, counts, j * 3, 3);
+        }
+        size = n;
+    }
+}
@@ -0,0 +1,131 @@
+package explorer;
+
+import controller.Game;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import model.board.MoveCode;
+
+/**
+ * Árvore de aberturas gravada por {@link OpeningTreeBuilder}, mapeada em
+ * memória e consultada pela posição (hash Zobrist). Seguro para uso
+ * concorrente; serve à interface e à IA.
+ *
+ * <pre>
+ * cabeçalho: int magic "OPT1", int versão, int nPosições, int nLances
+ * posições:  (long hash, int primeiroLance)[nPosições + 1]   (ordenadas; a última é sentinela)
+ * lances:    (short código, int brancas, int empates, int pretas)[nLances]
+ * </pre>
+ * Big-endian; o arquivo inteiro é mapeado numa região (limite de 2 GiB).
+ */
+public class OpeningTree implements Closeable {
+
+    static final int MAGIC = 0x4F50_5431; // "OPT1"
+    static final int VERSION = 1;
+    private static final int HEADER = 16;
+    private static final int POS_RECORD = 12;
+    private static final int MOVE_RECORD = 14;
+
+    /** Estatística de um lance na posição consultada. */
+    public static final class MoveStats {
+        private final int move;
+        private final int whiteWins, draws, blackWins;
+
+        MoveStats(int move, int whiteWins, int draws, int blackWins) {
+            this.move = move;
+            this.whiteWins = whiteWins;
+            this.draws = draws;
+            this.blackWins = blackWins;
+        }
+
+        /** Código do lance ({@link MoveCode}). */
+        public int getMove() { return move; }
+        public String getUci() { return MoveCode.toUci(move); }
+        public int getWhiteWins() { return whiteWins; }
+        public int getDraws() { return draws; }
+        public int getBlackWins() { return blackWins; }
+        public int getGames() { return whiteWins + draws + blackWins; }
+
+        /** Pontuação em % para quem joga o lance (vitória = 1, empate = ½). */
+        public double getScore(boolean whitePlays) {
+            int wins = whitePlays ? whiteWins : blackWins;
+            return getGames() == 0 ? 0 : 100.0 * (wins + draws * 0.5) / getGames();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s %d (+%d =%d -%d)", getUci(), getGames(), whiteWins, draws, blackWins);
+        }
+    }
+
+    private final FileChannel channel;
+    private final MappedByteBuffer map;
+    private final int positions;
+    private final int moveCount;
+    private final int movesOffset;
+
+    public OpeningTree(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        if (map.capacity() < HEADER || map.getInt(0) != MAGIC) {
+            channel.close();
+            throw new IOException("Árvore de aberturas inválida: " + file);
+        }
+        this.positions = map.getInt(8);
+        this.moveCount = map.getInt(12);
+        this.movesOffset = HEADER + (positions + 1) * POS_RECORD;
+        if (map.capacity() < movesOffset + (long) moveCount * MOVE_RECORD) {
+            channel.close();
+            throw new IOException("Árvore de aberturas truncada: " + file);
+        }
+    }
+
+    public int positionCount() { return positions; }
+    public int moveCount() { return moveCount; }
+
+    /** Lances jogados na posição atual, do mais jogado ao menos jogado. */
+    public List<MoveStats> query(Game game) {
+        return query(game.zobristHash());
+    }
+
+    public List<MoveStats> query(long hash) {
+        int lo = 0, hi = positions - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            long h = map.getLong(HEADER + mid * POS_RECORD);
+            if (h < hash) lo = mid + 1;
+            else if (h > hash) hi = mid - 1;
+            else return movesOf(mid);
+        }
+        return new ArrayList<>();
+    }
+
+    /** Lance mais jogado na posição com pelo menos {@code minGames} partidas, ou -1. */
+    public int mostPlayed(Game game, int minGames) {
+        List<MoveStats> stats = query(game);
+        return (stats.isEmpty() || stats.get(0).getGames() < minGames) ? -1 : stats.get(0).getMove();
+    }
+
+    private List<MoveStats> movesOf(int p) {
+        int first = map.getInt(HEADER + p * POS_RECORD + 8);
+        int end = map.getInt(HEADER + (p + 1) * POS_RECORD + 8);
+        List<MoveStats> out = new ArrayList<>(end - first);
+        for (int i = first; i < end; i++) {
+            int at = movesOffset + i * MOVE_RECORD;
+            out.add(new MoveStats(map.getShort(at) & 0xFFFF, map.getInt(at + 2), map.getInt(at + 6), map.getInt(at + 10)));
+        }
+        out.sort(Comparator.comparingInt(MoveStats::getGames).reversed());
+        return out;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
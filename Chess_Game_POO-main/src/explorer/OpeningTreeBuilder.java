@@ -0,0 +1,237 @@
+package explorer;
+
+import archive.ArchivedGame;
+import archive.GameArchiveReader;
+import controller.Game;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import model.board.Move;
+import model.board.MoveCode;
+import pgn.PgnGame;
+import pgn.PgnReader;
+
+/**
+ * Agrega as estatísticas do explorador de aberturas a partir de um PGN ou de
+ * um arquivo de partidas (.cga) e grava a árvore compacta lida por
+ * {@link OpeningTree}.
+ * <p>
+ * Cada tarefa fork-join acumula numa {@link OpeningCounts} própria e, no
+ * join, a tabela menor é unida à maior; não há estado compartilhado nem locks.
+ */
+public class OpeningTreeBuilder {
+
+    /** Partidas por folha da divisão fork-join. */
+    private static final int LEAF_GAMES = 256;
+
+    private final int maxPly;
+    private final int minGames;
+    private long skipped;
+
+    /**
+     * @param maxPly   profundidade da árvore (lances por partida considerados)
+     * @param minGames lances jogados menos vezes que isso não são gravados
+     */
+    public OpeningTreeBuilder(int maxPly, int minGames) {
+        this.maxPly = maxPly;
+        this.minGames = Math.max(1, minGames);
+    }
+
+    public OpeningTreeBuilder() {
+        this(30, 2);
+    }
+
+    // ---------- Agregação ----------
+
+    /** Agrega um arquivo de partidas, dividindo as faixas de ids com fork-join. */
+    public OpeningCounts aggregate(GameArchiveReader reader) {
+        return ForkJoinPool.commonPool().invoke(new ArchiveTask(reader, 0, reader.size()));
+    }
+
+    /** Agrega um PGN; o stream paralelo divide o arquivo e une as tabelas no pool fork-join. */
+    public OpeningCounts aggregate(PgnReader reader) {
+        return reader.games().parallel().collect(OpeningCounts::new, this::addGame, OpeningCounts::merge);
+    }
+
+    private final class ArchiveTask extends RecursiveTask<OpeningCounts> {
+        private static final long serialVersionUID = 1L;
+        private final GameArchiveReader reader;
+        private final long from, to;
+
+        ArchiveTask(GameArchiveReader reader, long from, long to) {
+            this.reader = reader;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected OpeningCounts compute() {
+            if (to - from <= LEAF_GAMES) {
+                OpeningCounts counts = new OpeningCounts();
+                long[] hashes = new long[maxPly];
+                for (long id = from; id < to; id++) {
+                    try {
+                        ArchivedGame g = reader.get(id, (game, ply) -> {
+                            if (ply < maxPly) hashes[ply] = game.zobristHash();
+                        });
+                        int outcome = outcome(g.getResult());
+                        if (outcome < 0) continue;
+                        int[] codes = g.getMoves();
+                        int n = Math.min(maxPly, codes.length);
+                        for (int i = 0; i < n; i++) counts.add(hashes[i], codes[i], outcome, 1);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return counts;
+            }
+            long mid = (from + to) >>> 1;
+            ArchiveTask left = new ArchiveTask(reader, from, mid);
+            left.fork();
+            OpeningCounts right = new ArchiveTask(reader, mid, to).compute();
+            return OpeningCounts.combine(left.join(), right);
+        }
+    }
+
+    private void addGame(OpeningCounts counts, PgnGame g) {
+        if (!g.isValid()) {
+            counts.skipGame();
+            return;
+        }
+        int outcome = outcome(g.getResult());
+        if (outcome < 0) return;
+        String fen = g.getTag("FEN");
+        Game game;
+        try {
+            game = (fen == null || fen.isEmpty()) ? new Game() : Game.fromFen(fen);
+        } catch (IllegalArgumentException e) {
+            counts.skipGame();
+            return;
+        }
+        List<Move> moves = g.getMoves();
+        int n = Math.min(maxPly, moves.size());
+        for (int i = 0; i < n; i++) {
+            Move m = moves.get(i);
+            int code = MoveCode.encode(m.getFrom(), m.getTo(), m.getPromotion());
+            counts.add(game.zobristHash(), code, outcome, 1);
+            game.move(code);
+        }
+    }
+
+    /** Contador do resultado, ou -1 para partidas sem resultado ("*"). */
+    static int outcome(String result) {
+        if (result == null) return -1;
+        switch (result) {
+            case "1-0": return OpeningCounts.WHITE_WINS;
+            case "1/2-1/2": return OpeningCounts.DRAWS;
+            case "0-1": return OpeningCounts.BLACK_WINS;
+            default: return -1;
+        }
+    }
+
+    // ---------- Gravação ----------
+
+    /**
+     * Grava a árvore no formato de {@link OpeningTree}: posições ordenadas por
+     * hash, cada uma apontando para a sua faixa de lances.
+     *
+     * @return número de posições gravadas
+     */
+    public int write(OpeningCounts counts, Path file) throws IOException {
+        // Entradas filtradas, ordenadas por (posição, lance), em arrays primitivos
+        long[] pos = new long[counts.size()];
+        int[] move = new int[counts.size()];
+        int[][] wdl = new int[3][counts.size()];
+        int[] n = { 0 };
+        counts.forEach((p, m, w, d, b) -> {
+            if (w + d + b < minGames) return;
+            int i = n[0]++;
+            pos[i] = p;
+            move[i] = m;
+            wdl[0][i] = w;
+            wdl[1][i] = d;
+            wdl[2][i] = b;
+        });
+        Integer[] order = new Integer[n[0]];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> {
+            int c = Long.compare(pos[a], pos[b]);
+            return c != 0 ? c : Integer.compare(move[a], move[b]);
+        });
+
+        int positions = 0;
+        for (int i = 0; i < order.length; i++) {
+            if (i == 0 || pos[order[i]] != pos[order[i - 1]]) positions++;
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            out.writeInt(OpeningTree.MAGIC);
+            out.writeInt(OpeningTree.VERSION);
+            out.writeInt(positions);
+            out.writeInt(order.length);
+            // tabela de posições: hash + primeiro lance; sentinela no fim
+            for (int i = 0; i < order.length; i++) {
+                if (i == 0 || pos[order[i]] != pos[order[i - 1]]) {
+                    out.writeLong(pos[order[i]]);
+                    out.writeInt(i);
+                }
+            }
+            out.writeLong(Long.MAX_VALUE);
+            out.writeInt(order.length);
+            // lances: código + V/E/D
+            for (int k : order) {
+                out.writeShort(move[k]);
+                out.writeInt(wdl[0][k]);
+                out.writeInt(wdl[1][k]);
+                out.writeInt(wdl[2][k]);
+            }
+        }
+        return positions;
+    }
+
+    /** Partidas puladas (FEN inválido, PGN com erro) na última chamada de {@link #build}. */
+    public long skipped() {
+        return skipped;
+    }
+
+    /** Agrega e grava numa só chamada. */
+    public int build(Path source, Path treeFile) throws IOException {
+        OpeningCounts counts;
+        if (source.getFileName().toString().endsWith(".pgn")) {
+            try (PgnReader reader = new PgnReader(source)) {
+                counts = aggregate(reader);
+            }
+        } else {
+            try (GameArchiveReader reader = new GameArchiveReader(source)) {
+                counts = aggregate(reader);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        skipped = counts.skipped();
+        return write(counts, treeFile);
+    }
+
+    /** {@code java explorer.OpeningTreeBuilder partidas.(pgn|cga) aberturas.opt [maxPly] [minGames]} */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("uso: java explorer.OpeningTreeBuilder partidas.(pgn|cga) aberturas.opt [maxPly] [minGames]");
+            return;
+        }
+        int maxPly = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        int minGames = args.length > 3 ? Integer.parseInt(args[3]) : 2;
+        long t0 = System.nanoTime();
+        OpeningTreeBuilder builder = new OpeningTreeBuilder(maxPly, minGames);
+        int n = builder.build(Path.of(args[0]), Path.of(args[1]));
+        System.out.printf("%,d posições em %.2f s (%,d bytes)%n",
+                n, (System.nanoTime() - t0) / 1e9, Files.size(Path.of(args[1])));
+        if (builder.skipped() > 0) System.out.printf("%,d partidas puladas (FEN inválido ou PGN com erro)%n", builder.skipped());
+    }
+}
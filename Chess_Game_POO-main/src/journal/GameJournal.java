@@ -0,0 +1,382 @@
+package journal;
+
+import controller.Game;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+
+/**
+ * Diário (append-only) dos lances de muitas partidas num só log, para que o
+ * servidor sobreviva a uma queda. Formato em {@link JournalFormat}.
+ * <p>
+ * Quem registra um lance só copia alguns bytes para um buffer em memória e
+ * recebe um {@link CompletableFuture} que completa quando o grupo em que o
+ * registro entrou estiver em disco. Uma thread de escrita troca o buffer a cada
+ * {@code syncMillis}, grava o grupo como um quadro com CRC e faz um único
+ * {@code fsync} (group commit). A mesma thread mantém uma cópia das partidas
+ * vivas e, a cada {@code snapshotMillis}, grava um snapshot (FEN de cada
+ * partida) e abre um segmento novo, apagando os antigos; a recuperação lê o
+ * snapshot e reproduz só os segmentos posteriores.
+ * <p>
+ * O snapshot guarda a posição (FEN), não a lista de lances: depois de
+ * recuperada, a notação do histórico começa vazia.
+ */
+public class GameJournal implements Closeable {
+
+    private static final int INITIAL_BUFFER = 1 << 16;
+
+    private final Path dir;
+    private final long syncNanos;
+    private final long snapshotNanos;
+
+    // Lado de quem registra (protegido por lock)
+    private final Object lock = new Object();
+    private ByteBuffer pending = ByteBuffer.allocate(INITIAL_BUFFER);
+    private ByteBuffer spare = ByteBuffer.allocate(INITIAL_BUFFER);
+    private CompletableFuture<Void> batch = new CompletableFuture<>();
+    private IOException failure;
+    private boolean closed;
+
+    // Lado da thread de escrita
+    private final Thread writer;
+    private final Map<Long, Game> live;
+    private final Map<Long, Game> recovered = new HashMap<>();
+    private FileChannel log;
+    private long segment;
+    private long lastSnapshot;
+
+    /**
+     * Abre (ou cria) o diário em {@code dir}, recuperando as partidas já
+     * gravadas (ver {@link #recoveredGames()}).
+     */
+    public GameJournal(Path dir, long syncMillis, long snapshotMillis) throws IOException {
+        this.dir = Files.createDirectories(dir);
+        this.syncNanos = Math.max(1, syncMillis) * 1_000_000L;
+        this.snapshotNanos = Math.max(1, snapshotMillis) * 1_000_000L;
+
+        this.live = recover(dir);
+        for (Map.Entry<Long, Game> e : live.entrySet()) recovered.put(e.getKey(), e.getValue().snapshotShallow());
+
+        // Começa num segmento novo com um snapshot do estado recuperado:
+        // compacta o log e descarta uma cauda corrompida do segmento anterior.
+        List<Long> segs = JournalFormat.segments(dir);
+        this.segment = segs.isEmpty() ? 0 : segs.get(segs.size() - 1);
+        snapshot();
+
+        this.writer = new Thread(this::writeLoop, "game-journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public GameJournal(Path dir) throws IOException {
+        this(dir, 10, 60_000);
+    }
+
+    /** Cópias das partidas encontradas no diário ao abrir, por id. */
+    public Map<Long, Game> recoveredGames() {
+        return new HashMap<>(recovered);
+    }
+
+    // ---------- Registro (caminho quente) ----------
+
+    /** Nova partida; {@code startFen} null ou vazio = posição inicial. */
+    public CompletableFuture<Void> begin(long gameId, String startFen) {
+        return append(JournalFormat.BEGIN, gameId, startFen == null ? "" : startFen, 0);
+    }
+
+    /** Lance ({@link model.board.MoveCode}) jogado na partida. */
+    public CompletableFuture<Void> move(long gameId, int code) {
+        return append(JournalFormat.MOVE, gameId, null, code);
+    }
+
+    /** Partida encerrada: não entra mais em snapshots nem na recuperação. */
+    public CompletableFuture<Void> end(long gameId) {
+        return append(JournalFormat.END, gameId, null, 0);
+    }
+
+    private CompletableFuture<Void> append(byte type, long gameId, String fen, int code) {
+        synchronized (lock) {
+            if (closed) throw new IllegalStateException("Diário fechado");
+            if (failure != null) return CompletableFuture.failedFuture(failure);
+            int need = JournalFormat.maxRecordSize(fen);
+            if (pending.remaining() < need) {
+                ByteBuffer bigger = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + need));
+                pending.flip();
+                pending = bigger.put(pending);
+            }
+            pending.put(type);
+            JournalFormat.putVarlong(pending, gameId);
+            if (type == JournalFormat.BEGIN) JournalFormat.putString(pending, fen);
+            else if (type == JournalFormat.MOVE) pending.putShort((short) code);
+            return batch;
+        }
+    }
+
+    // ---------- Thread de escrita ----------
+
+    private void writeLoop() {
+        long next = System.nanoTime() + syncNanos;
+        while (true) {
+            boolean last;
+            synchronized (lock) {
+                last = closed || failure != null;
+            }
+            if (!last) {
+                long wait = next - System.nanoTime();
+                if (wait > 0) LockSupport.parkNanos(this, wait);
+                if (System.nanoTime() < next) {
+                    synchronized (lock) {
+                        if (!closed) continue; // acordou cedo sem motivo
+                    }
+                }
+                next = System.nanoTime() + syncNanos;
+            }
+            try {
+                commit();
+                if (!last && System.nanoTime() - lastSnapshot >= snapshotNanos) snapshot();
+            } catch (IOException e) {
+                synchronized (lock) {
+                    failure = e;
+                    batch.completeExceptionally(e);
+                }
+            }
+            if (last) break;
+        }
+        try {
+            log.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /** Grava o grupo pendente como um quadro e sincroniza. */
+    private void commit() throws IOException {
+        ByteBuffer buf;
+        CompletableFuture<Void> done;
+        synchronized (lock) {
+            if (pending.position() == 0) return;
+            buf = pending;
+            pending = spare;
+            spare = buf;
+            pending.clear();
+            done = batch;
+            batch = new CompletableFuture<>();
+        }
+        buf.flip();
+        try {
+            CRC32 crc = new CRC32();
+            crc.update(buf.duplicate());
+            ByteBuffer header = ByteBuffer.allocate(JournalFormat.FRAME_HEADER);
+            header.putInt(buf.remaining()).putInt((int) crc.getValue()).flip();
+            ByteBuffer[] frame = { header, buf };
+            while (buf.hasRemaining()) log.write(frame);
+            log.force(false);
+        } catch (IOException e) {
+            done.completeExceptionally(e);
+            throw e;
+        }
+        buf.rewind();
+        apply(buf, live);
+        done.complete(null);
+    }
+
+    /**
+     * Abre um segmento novo e grava o snapshot das partidas vivas nesse ponto;
+     * os segmentos anteriores deixam de ser necessários.
+     */
+    private void snapshot() throws IOException {
+        if (log != null) log.close();
+        segment++;
+        log = FileChannel.open(JournalFormat.segment(dir, segment),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer h = ByteBuffer.allocate(JournalFormat.LOG_HEADER);
+        h.putInt(JournalFormat.LOG_MAGIC).putInt(JournalFormat.VERSION).flip();
+        while (h.hasRemaining()) log.write(h);
+        log.force(false);
+
+        List<String> fens = new ArrayList<>(live.size());
+        int size = 32;
+        for (Game g : live.values()) {
+            String fen = g.toFen();
+            fens.add(fen);
+            size += JournalFormat.maxRecordSize(fen);
+        }
+        ByteBuffer out = ByteBuffer.allocate(size);
+        out.putInt(JournalFormat.SNAPSHOT_MAGIC).putInt(JournalFormat.VERSION).putLong(segment);
+        JournalFormat.putVarlong(out, live.size());
+        int i = 0;
+        for (Long id : live.keySet()) {
+            JournalFormat.putVarlong(out, id);
+            JournalFormat.putString(out, fens.get(i++));
+        }
+        CRC32 crc = new CRC32();
+        crc.update(out.array(), 0, out.position());
+        out.putInt((int) crc.getValue()).flip();
+
+        Path tmp = dir.resolve(JournalFormat.SNAPSHOT + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining()) ch.write(out);
+            ch.force(false);
+        }
+        Files.move(tmp, dir.resolve(JournalFormat.SNAPSHOT),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        for (long s : JournalFormat.segments(dir)) {
+            if (s < segment) Files.deleteIfExists(JournalFormat.segment(dir, s));
+        }
+        lastSnapshot = System.nanoTime();
+    }
+
+    /** Grava o que estiver pendente e encerra a thread de escrita. */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) return;
+            closed = true;
+        }
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (lock) {
+            if (failure != null) throw failure;
+        }
+    }
+
+    // ---------- Recuperação ----------
+
+    /** Reconstrói as partidas vivas: snapshot + segmentos posteriores. */
+    public static Map<Long, Game> recover(Path dir) throws IOException {
+        Map<Long, Game> games = new HashMap<>();
+        if (!Files.isDirectory(dir)) return games;
+        long from = 0;
+        Path snap = dir.resolve(JournalFormat.SNAPSHOT);
+        if (Files.exists(snap)) from = readSnapshot(snap, games);
+        for (long s : JournalFormat.segments(dir)) {
+            if (s >= from) replay(JournalFormat.segment(dir, s), games);
+        }
+        return games;
+    }
+
+    private static long readSnapshot(Path file, Map<Long, Game> games) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(file));
+        CRC32 crc = new CRC32();
+        crc.update(in.array(), 0, Math.max(0, in.limit() - 4));
+        if (in.limit() < 20 || in.getInt() != JournalFormat.SNAPSHOT_MAGIC
+                || in.getInt(in.limit() - 4) != (int) crc.getValue()) {
+            throw new IOException("Snapshot do diário inválido: " + file);
+        }
+        in.getInt();
+        long segment = in.getLong();
+        long n = JournalFormat.getVarlong(in);
+        for (long i = 0; i < n; i++) {
+            long id = JournalFormat.getVarlong(in);
+            games.put(id, Game.fromFen(JournalFormat.getString(in)));
+        }
+        return segment;
+    }
+
+    /** Aplica os quadros válidos de um segmento; para no primeiro quadro incompleto ou corrompido. */
+    private static void replay(Path file, Map<Long, Game> games) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (in.remaining() < JournalFormat.LOG_HEADER || in.getInt() != JournalFormat.LOG_MAGIC) return;
+        in.getInt();
+        CRC32 crc = new CRC32();
+        while (in.remaining() >= JournalFormat.FRAME_HEADER) {
+            int len = in.getInt();
+            int expected = in.getInt();
+            if (len < 0 || len > in.remaining()) break;
+            ByteBuffer frame = in.slice();
+            frame.limit(len);
+            crc.reset();
+            crc.update(frame.duplicate());
+            if ((int) crc.getValue() != expected) break;
+            apply(frame, games);
+            in.position(in.position() + len);
+        }
+    }
+
+    private static void apply(ByteBuffer in, Map<Long, Game> games) {
+        while (in.hasRemaining()) {
+            byte type = in.get();
+            long id = JournalFormat.getVarlong(in);
+            switch (type) {
+                case JournalFormat.BEGIN: {
+                    String fen = JournalFormat.getString(in);
+                    games.put(id, fen.isEmpty() ? new Game() : Game.fromFen(fen));
+                    break;
+                }
+                case JournalFormat.MOVE: {
+                    int code = in.getShort() & 0xFFFF;
+                    Game g = games.get(id);
+                    if (g != null) g.move(code);
+                    break;
+                }
+                case JournalFormat.END:
+                    games.remove(id);
+                    break;
+                default:
+                    throw new IllegalStateException("Registro desconhecido no diário: " + type);
+            }
+        }
+    }
+
+    /**
+     * Carga sintética: {@code java journal.GameJournal dir [partidas] [lances]}.
+     * Joga lances aleatórios, fecha o diário, recupera e confere os FENs.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("uso: java journal.GameJournal dir [partidas] [lances]");
+            return;
+        }
+        Path dir = Path.of(args[0]);
+        int nGames = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int nMoves = args.length > 2 ? Integer.parseInt(args[2]) : 40;
+        Random rnd = new Random(7);
+        Map<Long, Game> games = new HashMap<>();
+        long records = 0, appendNanos = 0;
+        long t0 = System.nanoTime();
+        try (GameJournal journal = new GameJournal(dir, 5, 1_000)) {
+            long base = journal.recoveredGames().keySet().stream().mapToLong(Long::longValue).max().orElse(-1) + 1;
+            games.putAll(journal.recoveredGames());
+            for (long id = base; id < base + nGames; id++) {
+                games.put(id, new Game());
+                journal.begin(id, null);
+            }
+            for (int m = 0; m < nMoves; m++) {
+                for (Map.Entry<Long, Game> e : games.entrySet()) {
+                    int[] legal = e.getValue().legalMoveCodes();
+                    if (legal.length == 0 || e.getValue().isGameOver()) continue;
+                    int code = legal[rnd.nextInt(legal.length)];
+                    e.getValue().move(code);
+                    long a = System.nanoTime();
+                    journal.move(e.getKey(), code);
+                    appendNanos += System.nanoTime() - a;
+                    records++;
+                }
+            }
+        }
+        double s = (System.nanoTime() - t0) / 1e9;
+        Map<Long, Game> back = recover(dir);
+        long mismatches = games.entrySet().stream()
+                .filter(e -> !back.containsKey(e.getKey()) || !back.get(e.getKey()).toFen().equals(e.getValue().toFen()))
+                .count();
+        System.out.printf("%,d lances em %.2f s; registro %.0f ns/lance; %d partidas recuperadas, %d divergentes%n",
+                records, s, appendNanos / (double) Math.max(1, records), back.size(), mismatches);
+    }
+}
@@ -0,0 +1,98 @@
+package journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Formato do diário de partidas.
+ *
+ * <pre>
+ * segmento  journal-NNNNNNNN.log
+ *           cabeçalho: int magic "GJL1", int versão
+ *           quadros:   int tamanho, int crc32, byte registros[tamanho]
+ * registro  byte tipo, varlong partida, dados
+ *           BEGIN: str fenInicial ("" = posição inicial)
+ *           MOVE:  short código (MoveCode)
+ *           END:   (nada)
+ * snapshot  snapshot.bin
+ *           int magic "GJS1", int versão, long segmento, varint nPartidas,
+ *           (varlong partida, str fen)*, int crc32 do que veio antes
+ * </pre>
+ * str = varint tamanho + bytes UTF-8; inteiros fixos em big-endian.
+ * Cada quadro é um grupo de registros gravado (e sincronizado) de uma vez;
+ * um quadro incompleto ou com CRC errado marca o fim do segmento.
+ */
+final class JournalFormat {
+
+    static final int LOG_MAGIC = 0x474A_4C31;      // "GJL1"
+    static final int SNAPSHOT_MAGIC = 0x474A_5331; // "GJS1"
+    static final int VERSION = 1;
+    static final int LOG_HEADER = 8;
+    static final int FRAME_HEADER = 8;
+
+    static final byte BEGIN = 1, MOVE = 2, END = 3;
+
+    static final String SNAPSHOT = "snapshot.bin";
+
+    private JournalFormat() {}
+
+    static Path segment(Path dir, long n) {
+        return dir.resolve(String.format("journal-%08d.log", n));
+    }
+
+    /** Números dos segmentos existentes, em ordem. */
+    static List<Long> segments(Path dir) throws IOException {
+        List<Long> out = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.map(p -> p.getFileName().toString())
+                    .filter(f -> f.matches("journal-\\d{8,}\\.log"))
+                    .forEach(f -> out.add(Long.parseLong(f.substring(8, f.length() - 4))));
+        }
+        out.sort(null);
+        return out;
+    }
+
+    // ---------- Primitivos ----------
+
+    static void putVarlong(ByteBuffer out, long v) {
+        while ((v & ~0x7FL) != 0) {
+            out.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.put((byte) v);
+    }
+
+    static long getVarlong(ByteBuffer in) {
+        long v = 0;
+        int shift = 0, b;
+        do {
+            b = in.get() & 0xFF;
+            v |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0 && shift < 70);
+        return v;
+    }
+
+    static void putString(ByteBuffer out, String s) {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        putVarlong(out, b.length);
+        out.put(b);
+    }
+
+    static String getString(ByteBuffer in) {
+        byte[] b = new byte[(int) getVarlong(in)];
+        in.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    /** Bytes máximos de um registro com o FEN dado (null para MOVE/END). */
+    static int maxRecordSize(String fen) {
+        return 1 + 10 + (fen == null ? 2 : 5 + fen.length() * 3);
+    }
+}
@@ -0,0 +1,58 @@
+package model.board;
+
+/**
+ * Casas atacadas pelas peças de salto (cavalo, rei e captura de peão),
+ * pré-calculadas para cada casa. Cada conjunto é um bitmask: o bit
+ * {@code sq} (= row * 8 + column) ligado indica casa atacada.
+ * <p>
+ * Para percorrer sem alocar:
+ * <pre>
+ * for (long m = Attacks.knight(sq); m != 0; m &amp;= m - 1) {
+ *     int to = Long.numberOfTrailingZeros(m);
+ *     ...
+ * }
+ * </pre>
+ */
+public final class Attacks {
+
+    private static final long[] KNIGHT = new long[64];
+    private static final long[] KING = new long[64];
+    private static final long[] WHITE_PAWN = new long[64]; // brancas capturam para a linha de cima (row - 1)
+    private static final long[] BLACK_PAWN = new long[64];
+
+    static {
+        int[][] jumps = { {-2,-1},{-2,1},{-1,-2},{-1,2},{1,-2},{1,2},{2,-1},{2,1} };
+        for (int sq = 0; sq < 64; sq++) {
+            int r = sq >> 3, c = sq & 7;
+            for (int[] d : jumps) KNIGHT[sq] |= bit(r + d[0], c + d[1]);
+            for (int dr = -1; dr <= 1; dr++) {
+                for (int dc = -1; dc <= 1; dc++) {
+                    if (dr != 0 || dc != 0) KING[sq] |= bit(r + dr, c + dc);
+                }
+            }
+            WHITE_PAWN[sq] = bit(r - 1, c - 1) | bit(r - 1, c + 1);
+            BLACK_PAWN[sq] = bit(r + 1, c - 1) | bit(r + 1, c + 1);
+        }
+    }
+
+    private Attacks() {}
+
+    private static long bit(int r, int c) {
+        return (r < 0 || r > 7 || c < 0 || c > 7) ? 0 : 1L << (r * 8 + c);
+    }
+
+    /** Casas atacadas por um cavalo em {@code sq}. */
+    public static long knight(int sq) { return KNIGHT[sq]; }
+
+    /** Casas atacadas por um rei em {@code sq} (sem roque). */
+    public static long king(int sq) { return KING[sq]; }
+
+    /**
+     * Casas que um peão da cor indicada em {@code sq} captura. Ao contrário:
+     * os peões de cor {@code white} que atacam {@code sq} estão em
+     * {@code pawn(!white, sq)}.
+     */
+    public static long pawn(boolean white, int sq) {
+        return white ? WHITE_PAWN[sq] : BLACK_PAWN[sq];
+    }
+}
@@ -3,7 +3,7 @@ package model.board;
 
 import java.util.ArrayList;
 import java.util.List;
-import model.pieces.Piece;
+import model.pieces.*;
 
 public class Board {
 
@@ -19,6 +19,12 @@ public class Board {
         return isInside(p) ? grid[p.getRow()][p.getColumn()] : null;
     }
 
+    /** Acesso direto por linha/coluna, sem alocar Position (null se fora). */
+    public Piece get(int row, int col) {
+        if (row < 0 || row > 7 || col < 0 || col > 7) return null;
+        return grid[row][col];
+    }
+
     /**
      * Define a peça na posição (substitui o que houver).
      * Não valida legalidade de movimento — responsabilidade da lógica de jogo.
@@ -96,6 +102,100 @@ public class Board {
         return b;
     }
 
+    /**
+     * Lê o campo de posicionamento de um FEN (ex.: "rnbqkbnr/pppppppp/8/...") a partir
+     * de {@code start}, percorrendo o CharSequence diretamente. O campo é validado
+     * antes: se for inválido o tabuleiro fica como estava; senão é limpo e preenchido.
+     *
+     * @return índice logo após o campo (espaço seguinte ou fim da sequência)
+     * @throws IllegalArgumentException se o campo for inválido
+     */
+    public int loadFenPlacement(CharSequence fen, int start) {
+        int end = checkFenPlacement(fen, start);
+        clear();
+        int row = 0, col = 0;
+        for (int i = start; i < end; i++) {
+            char ch = fen.charAt(i);
+            if (ch == '/') {
+                row++;
+                col = 0;
+            } else if (ch >= '1' && ch <= '8') {
+                col += ch - '0';
+            } else {
+                set(new Position(row, col++), fenPiece(ch));
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Valida o campo de posicionamento de um FEN sem alterar nada: oito linhas
+     * de oito casas, peças conhecidas e exatamente um rei de cada cor.
+     *
+     * @return índice logo após o campo (espaço seguinte ou fim da sequência)
+     * @throws IllegalArgumentException se o campo for inválido
+     */
+    public static int checkFenPlacement(CharSequence fen, int start) {
+        int row = 0, col = 0, i = start, n = fen.length();
+        int whiteKings = 0, blackKings = 0;
+        for (; i < n; i++) {
+            char ch = fen.charAt(i);
+            if (ch == ' ') break;
+            if (ch == '/') {
+                if (col != 8 || ++row > 7) throw new IllegalArgumentException("FEN inválido (linha " + (8 - row) + "): " + fen);
+                col = 0;
+            } else if (ch >= '1' && ch <= '8') {
+                col += ch - '0';
+                if (col > 8) throw new IllegalArgumentException("FEN inválido (linha " + (8 - row) + "): " + fen);
+            } else {
+                if ("PNBRQKpnbrqk".indexOf(ch) < 0 || col > 7) throw new IllegalArgumentException("FEN inválido ('" + ch + "'): " + fen);
+                if (ch == 'K') whiteKings++;
+                else if (ch == 'k') blackKings++;
+                col++;
+            }
+        }
+        if (row != 7 || col != 8) throw new IllegalArgumentException("FEN incompleto: " + fen);
+        if (whiteKings != 1 || blackKings != 1) {
+            throw new IllegalArgumentException("FEN precisa de exatamente um rei de cada cor");
+        }
+        return i;
+    }
+
+    /** Escreve o campo de posicionamento do FEN (linha 8 primeiro). */
+    public void appendFenPlacement(StringBuilder sb) {
+        for (int r = 0; r < 8; r++) {
+            int empty = 0;
+            for (int c = 0; c < 8; c++) {
+                Piece p = grid[r][c];
+                if (p == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    sb.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                char ch = p.getSymbol().charAt(0);
+                sb.append(p.isWhite() ? ch : Character.toLowerCase(ch));
+            }
+            if (empty > 0) sb.append((char) ('0' + empty));
+            if (r < 7) sb.append('/');
+        }
+    }
+
+    private Piece fenPiece(char ch) {
+        boolean white = Character.isUpperCase(ch);
+        return switch (Character.toUpperCase(ch)) {
+            case 'P' -> new Pawn(this, white);
+            case 'N' -> new Knight(this, white);
+            case 'B' -> new Bishop(this, white);
+            case 'R' -> new Rook(this, white);
+            case 'Q' -> new Queen(this, white);
+            case 'K' -> new King(this, white);
+            default -> null;
+        };
+    }
+
     public void put(Position from, Piece moving) {
         // TODO Auto-generated method stub
         throw new UnsupportedOperationException("Unimplemented method 'put'");
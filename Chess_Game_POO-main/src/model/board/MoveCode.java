@@ -0,0 +1,47 @@
+package model.board;
+
+/**
+ * Codificação compacta de um lance em 15 bits: {@code from << 9 | to << 3 | promo}.
+ * Casas como row * 8 + column; promo 0 = nenhuma, 1..4 = N, B, R, Q.
+ * A ordem numérica dos códigos é (origem, destino, promoção).
+ */
+public final class MoveCode {
+
+    private static final String PROMOS = " NBRQ";
+
+    private MoveCode() {}
+
+    public static int encode(Position from, Position to, Character promotion) {
+        int promo = (promotion == null) ? 0 : Math.max(0, PROMOS.indexOf(Character.toUpperCase(promotion)));
+        return encode(from.getRow() * 8 + from.getColumn(), to.getRow() * 8 + to.getColumn(), promo);
+    }
+
+    public static int encode(int fromSq, int toSq, int promo) {
+        return (fromSq << 9) | (toSq << 3) | promo;
+    }
+
+    public static int fromSquare(int code) { return (code >>> 9) & 63; }
+    public static int toSquare(int code) { return (code >>> 3) & 63; }
+    public static int promoIndex(int code) { return code & 7; }
+
+    public static Position from(int code) {
+        return Position.of(fromSquare(code));
+    }
+
+    public static Position to(int code) {
+        return Position.of(toSquare(code));
+    }
+
+    /** 'N', 'B', 'R', 'Q' ou null. */
+    public static Character promotion(int code) {
+        int p = promoIndex(code);
+        return (p == 0 || p >= PROMOS.length()) ? null : PROMOS.charAt(p);
+    }
+
+    /** Notação UCI (ex.: e2e4, e7e8q). */
+    public static String toUci(int code) {
+        String s = from(code).toString() + to(code);
+        Character p = promotion(code);
+        return p == null ? s : s + Character.toLowerCase(p);
+    }
+}
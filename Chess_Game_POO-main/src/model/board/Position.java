@@ -8,11 +8,22 @@ public final class Position {
     private final int row;    // 0..7 (0 = topo / linha 8, 7 = fundo / linha 1)
     private final int column; // 0..7 (0 = 'a', 7 = 'h')
 
+    // Uma instância por casa: Position é imutável, então pode ser compartilhada
+    private static final Position[] SQUARES = new Position[64];
+    static {
+        for (int sq = 0; sq < 64; sq++) SQUARES[sq] = new Position(sq >> 3, sq & 7);
+    }
+
     public Position(int row, int column) {
         this.row = row;
         this.column = column;
     }
 
+    /** Posição da casa {@code sq} (= row * 8 + column), sem alocar. */
+    public static Position of(int sq) {
+        return SQUARES[sq];
+    }
+
     public int getRow() { return row; }
     public int getColumn() { return column; }
 
@@ -0,0 +1,73 @@
+package model.board;
+
+import java.util.SplittableRandom;
+import model.pieces.*;
+
+/**
+ * Chaves Zobrist fixas (semente constante): o mesmo hash em todas as execuções,
+ * o que permite gravá-lo em índices e arquivos.
+ */
+public final class Zobrist {
+
+    private static final long[][] PIECES = new long[12][64];
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EP_FILE = new long[8];
+    private static final long BLACK_TO_MOVE;
+
+    static {
+        SplittableRandom rnd = new SplittableRandom(0x5EED_C4E55L);
+        for (long[] sq : PIECES) {
+            for (int i = 0; i < 64; i++) sq[i] = rnd.nextLong();
+        }
+        for (int i = 0; i < 16; i++) CASTLING[i] = rnd.nextLong();
+        for (int i = 0; i < 8; i++) EP_FILE[i] = rnd.nextLong();
+        BLACK_TO_MOVE = rnd.nextLong();
+    }
+
+    private Zobrist() {}
+
+    /**
+     * Hash da posição.
+     *
+     * @param castlingRights bits 1 = K, 2 = Q, 4 = k, 8 = q
+     * @param epFile coluna da casa de en passant, ou -1 (só quando a captura é possível)
+     */
+    public static long hash(Board board, boolean whiteToMove, int castlingRights, int epFile) {
+        long h = 0;
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                Piece p = board.get(r, c);
+                if (p != null) h ^= PIECES[pieceIndex(p)][r * 8 + c];
+            }
+        }
+        h ^= CASTLING[castlingRights & 15];
+        if (epFile >= 0) h ^= EP_FILE[epFile];
+        if (!whiteToMove) h ^= BLACK_TO_MOVE;
+        return h;
+    }
+
+    /** Como {@link #hash(Board, boolean, int, int)}, com o tabuleiro empacotado (0 = vazia, senão {@link #pieceIndex} + 1). */
+    public static long hash(byte[] squares, boolean whiteToMove, int castlingRights, int epFile) {
+        long h = 0;
+        for (int sq = 0; sq < 64; sq++) {
+            int code = squares[sq];
+            if (code != 0) h ^= PIECES[code - 1][sq];
+        }
+        h ^= CASTLING[castlingRights & 15];
+        if (epFile >= 0) h ^= EP_FILE[epFile];
+        if (!whiteToMove) h ^= BLACK_TO_MOVE;
+        return h;
+    }
+
+    /** 0..5 brancas (P, N, B, R, Q, K), 6..11 pretas. */
+    public static int pieceIndex(Piece p) {
+        int t;
+        if (p instanceof Pawn) t = 0;
+        else if (p instanceof Knight) t = 1;
+        else if (p instanceof Bishop) t = 2;
+        else if (p instanceof Rook) t = 3;
+        else if (p instanceof Queen) t = 4;
+        else t = 5;
+        return p.isWhite() ? t : t + 6;
+    }
+}
@@ -3,6 +3,7 @@ package model.pieces;
 
 import java.util.ArrayList;
 import java.util.List;
+import model.board.Attacks;
 import model.board.Board;
 import model.board.Position;
 
@@ -28,18 +29,11 @@ public class King extends Piece {
         List<Position> moves = new ArrayList<>();
         if (position == null || board == null) return moves;
 
-        for (int dr = -1; dr <= 1; dr++) {
-            for (int dc = -1; dc <= 1; dc++) {
-                if (dr == 0 && dc == 0) continue;
-                int r = position.getRow() + dr;
-                int c = position.getColumn() + dc;
-                if (r < 0 || r > 7 || c < 0 || c > 7) continue;
-
-                Position to = new Position(r, c);
-                Piece occ = board.get(to);
-                if (occ == null || occ.isWhite() != this.isWhite) {
-                    moves.add(to);
-                }
+        for (long m = Attacks.king(position.getRow() * 8 + position.getColumn()); m != 0; m &= m - 1) {
+            int to = Long.numberOfTrailingZeros(m);
+            Piece occ = board.get(to >> 3, to & 7);
+            if (occ == null || occ.isWhite() != this.isWhite) {
+                moves.add(Position.of(to));
             }
         }
 
@@ -56,14 +50,8 @@ public class King extends Piece {
         List<Position> attacks = new ArrayList<>();
         if (position == null) return attacks;
 
-        for (int dr = -1; dr <= 1; dr++) {
-            for (int dc = -1; dc <= 1; dc++) {
-                if (dr == 0 && dc == 0) continue;
-                int r = position.getRow() + dr;
-                int c = position.getColumn() + dc;
-                if (r < 0 || r > 7 || c < 0 || c > 7) continue;
-                attacks.add(new Position(r, c));
-            }
+        for (long m = Attacks.king(position.getRow() * 8 + position.getColumn()); m != 0; m &= m - 1) {
+            attacks.add(Position.of(Long.numberOfTrailingZeros(m)));
         }
         return attacks;
     }
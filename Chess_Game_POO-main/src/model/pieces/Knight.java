@@ -26,20 +26,11 @@ public class Knight extends Piece {
         List<Position> moves = new ArrayList<>();
         if (position == null || board == null) return moves;
 
-        int[][] jumps = {
-            {-2,-1},{-2,1},{-1,-2},{-1,2},
-            { 1,-2},{ 1,2},{ 2,-1},{ 2,1}
-        };
-
-        for (int[] d : jumps) {
-            int r = position.getRow() + d[0];
-            int c = position.getColumn() + d[1];
-            if (r < 0 || r > 7 || c < 0 || c > 7) continue;
-
-            Position to = new Position(r, c);
-            Piece occ = board.get(to);
+        for (long m = Attacks.knight(position.getRow() * 8 + position.getColumn()); m != 0; m &= m - 1) {
+            int to = Long.numberOfTrailingZeros(m);
+            Piece occ = board.get(to >> 3, to & 7);
             if (occ == null || occ.isWhite() != this.isWhite) {
-                moves.add(to);
+                moves.add(Position.of(to));
             }
         }
         return moves;
@@ -43,19 +43,11 @@ public class Pawn extends Piece {
         }
 
         // Capturas diagonais
-        Position left = new Position(position.getRow() + dir, position.getColumn() - 1);
-        Position right = new Position(position.getRow() + dir, position.getColumn() + 1);
-
-        if (left.isValid()) {
-            Piece target = board.get(left);
+        for (long m = Attacks.pawn(isWhite, position.getRow() * 8 + position.getColumn()); m != 0; m &= m - 1) {
+            int to = Long.numberOfTrailingZeros(m);
+            Piece target = board.get(to >> 3, to & 7);
             if (target != null && target.isWhite() != isWhite) {
-                moves.add(left);
-            }
-        }
-        if (right.isValid()) {
-            Piece target = board.get(right);
-            if (target != null && target.isWhite() != isWhite) {
-                moves.add(right);
+                moves.add(Position.of(to));
             }
         }
 
@@ -66,14 +58,9 @@ public class Pawn extends Piece {
     @Override
     public List<Position> getAttacks() {
         List<Position> attacks = new ArrayList<>();
-        int dir = isWhite ? -1 : 1;
-
-        Position left = new Position(position.getRow() + dir, position.getColumn() - 1);
-        Position right = new Position(position.getRow() + dir, position.getColumn() + 1);
-
-        if (left.isValid()) attacks.add(left);
-        if (right.isValid()) attacks.add(right);
-
+        for (long m = Attacks.pawn(isWhite, position.getRow() * 8 + position.getColumn()); m != 0; m &= m - 1) {
+            attacks.add(Position.of(Long.numberOfTrailingZeros(m)));
+        }
         return attacks;
     }
 }
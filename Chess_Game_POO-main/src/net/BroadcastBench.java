@@ -0,0 +1,198 @@
+package net;
+
+import controller.Game;
+import controller.PositionSnapshot;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Benchmark local do {@link Broadcaster}: uma partida transmitida para
+ * milhares de espectadores em memória (canais que só contam e validam os
+ * quadros recebidos), com uma fração de espectadores lentos e outra de
+ * travados, para exercitar o salto para POSITION e a remoção.
+ * <p>
+ * Cada espectador confere que todo MOVED vem logo depois do lance anterior
+ * (ou da posição do último POSITION) e, no fim, que {@link Broadcaster#end}
+ * lhe entregou o GAME_OVER e fechou o canal. Sai com status 1 se algo falhou.
+ * <pre>
+ * java net.BroadcastBench [espectadores] [segundos] [lances/s] [threads] [capacidade]
+ * </pre>
+ * Uma capacidade pequena (ex.: 4) com várias threads força o anel a dar voltas
+ * durante as leituras.
+ */
+public class BroadcastBench {
+
+    /** Canal em memória que aceita (ou não) bytes e confere o enquadramento. */
+    private static final class Sink implements GatheringByteChannel {
+        final int budget;     // bytes aceitos por chamada; 0 = travado
+        final int every;      // aceita só a cada 'every' chamadas
+        final Map<Long, Long> successor; // hash de cada posição publicada → hash da seguinte
+        int calls;
+        long frames, positions, bytes, outOfOrder, gameOvers;
+        long lastHash;        // hash do último MOVED/POSITION recebido
+        final byte[] frame = new byte[2 + WireProtocol.MAX_FRAME];
+        int have;             // bytes do quadro atual já recebidos
+        boolean corrupt, open = true;
+
+        Sink(int budget, int every, Map<Long, Long> successor) {
+            this.budget = budget;
+            this.every = every;
+            this.successor = successor;
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) {
+            if (budget == 0 || ++calls % every != 0) return 0;
+            long n = 0;
+            for (int i = offset; i < offset + length && n < budget; i++) {
+                ByteBuffer b = srcs[i];
+                while (b.hasRemaining() && n < budget) {
+                    consume(b.get());
+                    n++;
+                }
+            }
+            bytes += n;
+            return n;
+        }
+
+        private void consume(byte v) {
+            if (corrupt) return;
+            frame[have++] = v;
+            if (have < 3) return;
+            int len = (frame[0] & 0xFF) << 8 | (frame[1] & 0xFF);
+            if (len < 1 || len > WireProtocol.MAX_FRAME) {
+                corrupt = true;
+                return;
+            }
+            if (have < 2 + len) return;
+            ByteBuffer f = ByteBuffer.wrap(frame, 2, len);
+            byte type = f.get();
+            if (type == WireProtocol.MOVED) {
+                long hash = f.getLong(2 + len - 8);
+                Long expected = successor.get(lastHash);
+                if (expected == null || expected != hash) outOfOrder++;
+                lastHash = hash;
+            } else if (type == WireProtocol.POSITION) {
+                positions++;
+                lastHash = f.getLong(2 + len - 8);
+            } else if (type == WireProtocol.GAME_OVER) {
+                gameOvers++;
+            } else {
+                corrupt = true;
+            }
+            frames++;
+            have = 0;
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs) {
+            return write(srcs, 0, srcs.length);
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            return (int) write(new ByteBuffer[] { src });
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+    }
+
+    /** Lance pré-calculado (o benchmark mede a transmissão, não o gerador de lances). */
+    private record Step(int code, int ply, PositionSnapshot after, byte result) {}
+
+    public static void main(String[] args) throws Exception {
+        int subscribers = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int rate = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        int capacity = args.length > 4 ? Integer.parseInt(args[4]) : 64;
+
+        // Posições repetidas ficam de fora: o hash de cada MOVED identifica a sua vez na sequência
+        List<Step> steps = new ArrayList<>();
+        SplittableRandom rnd = new SplittableRandom(7);
+        Game game = new Game();
+        long startHash = game.snapshot().hash();
+        Set<Long> seen = new HashSet<>(List.of(startHash));
+        while (steps.size() < 4096) {
+            int[] legal = game.legalMoveCodes();
+            game.move(legal[rnd.nextInt(legal.length)]);
+            boolean over = game.isGameOver() || game.plyCount() >= 300;
+            if (seen.add(game.snapshot().hash())) {
+                steps.add(new Step(game.lastMoveCode(), game.plyCount(), game.snapshot(),
+                        over ? (game.isGameOver() ? Broadcaster.result(game) : WireProtocol.DRAW) : 0));
+            }
+            if (over) game = new Game();
+        }
+        Map<Long, Long> successor = new HashMap<>();
+        successor.put(startHash, steps.get(0).after().hash());
+        for (int i = 0; i < steps.size(); i++) {
+            successor.put(steps.get(i).after().hash(), steps.get((i + 1) % steps.size()).after().hash());
+        }
+
+        Broadcaster b = new Broadcaster(threads, capacity, 1000);
+        b.open(1, new Game());
+        List<Sink> sinks = new ArrayList<>();
+        for (int i = 0; i < subscribers; i++) {
+            // 1% lentos (16 bytes a cada 50 chamadas), 0,1% travados, o resto rápido
+            Sink s = i % 1000 == 999 ? new Sink(0, 1, successor)
+                    : i % 100 == 1 ? new Sink(16, 50, successor) : new Sink(1 << 16, 1, successor);
+            sinks.add(s);
+            b.subscribe(1, s);
+        }
+
+        long t0 = System.nanoTime();
+        long end = t0 + seconds * 1_000_000_000L;
+        long interval = 1_000_000_000L / Math.max(1, rate);
+        int published = 0;
+        long finalHash = 0;
+        for (long next = t0; next < end; next += interval) {
+            long wait = next - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+            Step st = steps.get(published++ % steps.size());
+            b.publish(1, st.code(), st.ply(), st.after(), st.result());
+            finalHash = st.after().hash();
+        }
+        Thread.sleep(500); // deixa as threads de envio esvaziarem
+        double secs = (System.nanoTime() - t0) / 1e9;
+        b.end(1, WireProtocol.DRAW);
+        Thread.sleep(500); // entrega do GAME_OVER final e fechamento dos canais
+        b.close();
+
+        long frames = 0, positions = 0, corrupt = 0, outOfOrder = 0;
+        long fastBehind = 0, fastOpen = 0; // rápidos que não chegaram ao último lance / ao fim
+        for (int i = 0; i < sinks.size(); i++) {
+            Sink s = sinks.get(i);
+            frames += s.frames;
+            positions += s.positions;
+            outOfOrder += s.outOfOrder;
+            if (s.corrupt) corrupt++;
+            if (s.budget > 16 && s.lastHash != finalHash) fastBehind++;
+            if (s.budget > 16 && (s.gameOvers == 0 || s.open)) fastOpen++;
+        }
+        System.out.printf("%,d espectadores, %d threads, %,d lances publicados em %.1f s (%,.0f/s)%n",
+                subscribers, threads, published, secs, published / secs);
+        System.out.printf("entregues: %,d quadros = %,.0f quadros/s, %.1f MB/s; varredura média %.0f µs%n",
+                frames, frames / secs, b.bytesSent() / secs / 1e6, b.meanPassMicros());
+        System.out.printf("saltos para POSITION: %,d; removidos: %,d; quadros corrompidos: %d; rápidos atrasados: %d%n",
+                b.resyncs(), b.dropped(), corrupt, fastBehind);
+        System.out.printf("MOVED fora de ordem: %,d; rápidos sem GAME_OVER final ou com canal aberto: %d%n",
+                outOfOrder, fastOpen);
+        if (corrupt > 0 || outOfOrder > 0 || fastBehind > 0 || fastOpen > 0) System.exit(1);
+    }
+}
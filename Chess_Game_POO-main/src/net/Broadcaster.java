@@ -0,0 +1,389 @@
+package net;
+
+import controller.Game;
+import controller.PositionSnapshot;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Transmissão dos lances de uma partida para muitos espectadores.
+ * <p>
+ * Cada lance publicado é serializado uma única vez num buffer direto
+ * imutável e entra no anel da partida (os últimos {@code capacity} quadros,
+ * numerados). Nenhum espectador tem fila própria: cada um guarda só o número
+ * do próximo quadro que precisa. Threads de envio (cada espectador pertence a
+ * uma) varrem os espectadores e mandam, numa única escrita com gather, todos
+ * os quadros que faltam a cada um — duplicatas do mesmo buffer, sem cópia.
+ * <p>
+ * Quem ficou para trás mais do que o anel guarda pula para a posição atual
+ * (um quadro POSITION, também montado uma vez só, seguido do GAME_OVER se a
+ * partida acabou) e segue dali. O publicador escreve as casas do anel antes
+ * de publicar o topo, então quem lê deixa uma folga de
+ * {@value #MAX_FRAMES_PER_APPEND} quadros (o que uma publicação escreve) e
+ * confere o topo de novo depois de ler. Quem não aceita bytes por
+ * {@code stallMillis} ms, ou dá erro ao escrever, é removido.
+ * <p>
+ * {@link #end} encerra a transmissão: quem ainda não recebeu o fim da partida
+ * recebe um GAME_OVER e, entregue tudo, o canal de cada espectador é fechado.
+ * Os canais devem ser não bloqueantes (ou rápidos o bastante), já que uma
+ * escrita bloqueada segura a thread de envio.
+ */
+public class Broadcaster implements Closeable {
+
+    /** Quadros que uma publicação escreve no máximo (MOVED + GAME_OVER). */
+    static final int MAX_FRAMES_PER_APPEND = 2;
+
+    /** Um espectador inscrito. */
+    public static final class Subscription {
+        private final Feed feed;
+        private final int id;
+        private final GatheringByteChannel channel;
+        private long next = -1;               // próximo quadro; -1 = precisa de POSITION
+        private ByteBuffer[] pending;         // escrita parcial em andamento
+        private long stalledSince;
+        private volatile boolean closed;
+
+        private Subscription(Feed feed, int id, GatheringByteChannel channel) {
+            this.feed = feed;
+            this.id = id;
+            this.channel = channel;
+        }
+
+        public int gameId() { return feed.gameId; }
+        public boolean isClosed() { return closed; }
+    }
+
+    /** Estado publicado da partida: topo do anel e a posição correspondente. */
+    private static final class Tip {
+        final long head;                // número do próximo quadro a publicar
+        final int ply;
+        final PositionSnapshot position;
+        final ByteBuffer over;          // GAME_OVER já publicado, ou null; vai junto do POSITION
+        ByteBuffer positionFrame;       // montado sob demanda; corrida benigna (imutável)
+
+        Tip(long head, int ply, PositionSnapshot position, ByteBuffer over) {
+            this.head = head;
+            this.ply = ply;
+            this.position = position;
+            this.over = over;
+        }
+    }
+
+    /** Partida transmitida: anel de quadros e espectadores por thread de envio. */
+    private final class Feed {
+        final int gameId;
+        final ByteBuffer[] ring = new ByteBuffer[capacity];
+        volatile Tip tip;
+        volatile boolean ended;                     // end(): entrega o que falta e fecha os canais
+        final List<List<Subscription>> byWorker = new ArrayList<>();
+        volatile int version;                       // muda a cada inscrição/remoção
+        final Subscription[][] views;               // [worker] cópia da lista, renovada por versão
+        final int[] viewVersion;
+
+        Feed(int gameId, int ply, PositionSnapshot position) {
+            this.gameId = gameId;
+            this.tip = new Tip(0, ply, position, null);
+            this.views = new Subscription[workers.length][];
+            this.viewVersion = new int[workers.length];
+            for (int w = 0; w < workers.length; w++) {
+                byWorker.add(new ArrayList<>());
+                views[w] = new Subscription[0];
+            }
+        }
+
+        /** Só a thread que joga a partida publica; no máximo {@value #MAX_FRAMES_PER_APPEND} quadros. */
+        void append(int ply, PositionSnapshot position, ByteBuffer... frames) {
+            long head = tip.head;
+            ByteBuffer over = null;
+            for (ByteBuffer f : frames) {
+                boolean gameOver = f.get(f.position() + 2) == WireProtocol.GAME_OVER;
+                ByteBuffer shared = ByteBuffer.allocateDirect(f.remaining()).put(f).flip().asReadOnlyBuffer();
+                ring[(int) (head++ % capacity)] = shared;
+                if (gameOver) over = shared;
+            }
+            tip = new Tip(head, ply, position, over); // publica os quadros acima (escrita volátil)
+        }
+
+        /** Com a transmissão encerrada e ninguém inscrito, sai do mapa. */
+        void retireIfDone() {
+            synchronized (this) {
+                for (List<Subscription> l : byWorker) {
+                    if (!l.isEmpty()) return;
+                }
+            }
+            feeds.remove(gameId, this);
+        }
+
+        Subscription[] view(int w) {
+            int v = version;
+            if (viewVersion[w] != v) {
+                synchronized (this) {
+                    views[w] = byWorker.get(w).toArray(new Subscription[0]);
+                    viewVersion[w] = version;
+                }
+            }
+            return views[w];
+        }
+
+        ByteBuffer positionFrame(Tip t) {
+            ByteBuffer f = t.positionFrame;
+            if (f == null) {
+                ByteBuffer b = WireProtocol.position(gameId, t.ply, t.position);
+                f = ByteBuffer.allocateDirect(b.remaining()).put(b).flip().asReadOnlyBuffer();
+                t.positionFrame = f;
+            }
+            return f;
+        }
+    }
+
+    private final int capacity;
+    private final int window;         // quadros que se pode ler do anel: capacity - MAX_FRAMES_PER_APPEND
+    private final long stallNanos;
+    private final ConcurrentHashMap<Integer, Feed> feeds = new ConcurrentHashMap<>();
+    private final Thread[] workers;
+    private volatile int signal;      // incrementado a cada publicação
+    private final AtomicInteger nextId = new AtomicInteger();
+    private volatile boolean running = true;
+
+    private final LongAdder framesSent = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder resyncs = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder passes = new LongAdder();
+    private final LongAdder passNanos = new LongAdder();
+
+    /**
+     * @param threads threads de envio
+     * @param capacity quadros guardados por partida (quem fica mais atrás recebe POSITION);
+     *                 no mínimo {@code 2 * MAX_FRAMES_PER_APPEND}
+     * @param stallMillis tempo máximo que um espectador pode ficar sem aceitar bytes
+     */
+    public Broadcaster(int threads, int capacity, long stallMillis) {
+        this.capacity = Math.max(2 * MAX_FRAMES_PER_APPEND, capacity);
+        this.window = this.capacity - MAX_FRAMES_PER_APPEND;
+        this.stallNanos = Math.max(1, stallMillis) * 1_000_000L;
+        this.workers = new Thread[Math.max(1, threads)];
+        for (int w = 0; w < workers.length; w++) {
+            int worker = w;
+            workers[w] = new Thread(() -> workLoop(worker), "broadcast-" + w);
+            workers[w].setDaemon(true);
+            workers[w].start();
+        }
+    }
+
+    public Broadcaster() {
+        this(Math.max(1, Runtime.getRuntime().availableProcessors() / 2), 64, 5000);
+    }
+
+    /** Começa a transmitir a partida (idempotente). */
+    public void open(int gameId, Game game) {
+        feeds.computeIfAbsent(gameId, id -> new Feed(id, game.plyCount(), game.snapshot()));
+    }
+
+    /**
+     * Encerra a transmissão. Se ainda não foi publicado o fim da partida, os
+     * espectadores recebem um GAME_OVER com {@code result}; depois de
+     * entregue o que falta, os canais deles são fechados (os travados saem
+     * por {@code stallMillis}). Chamar da thread que joga a partida.
+     */
+    public void end(int gameId, byte result) {
+        Feed f = feeds.get(gameId);
+        if (f == null || f.ended) return;
+        Tip t = f.tip;
+        if (t.over == null) f.append(t.ply, t.position, WireProtocol.gameOver(gameId, result));
+        f.ended = true;
+        wakeAll();
+    }
+
+    /** Inscreve um canal; ele recebe primeiro a posição atual. Null se a partida não é (mais) transmitida. */
+    public Subscription subscribe(int gameId, GatheringByteChannel channel) {
+        Feed f = feeds.get(gameId);
+        if (f == null || f.ended) return null;
+        Subscription s = new Subscription(f, nextId.getAndIncrement(), channel);
+        synchronized (f) {
+            f.byWorker.get(s.id % workers.length).add(s);
+            f.version++;
+        }
+        wakeAll();
+        return s;
+    }
+
+    public void unsubscribe(Subscription s) {
+        if (s == null || s.closed) return;
+        s.closed = true;
+        Feed f = s.feed;
+        synchronized (f) {
+            f.byWorker.get(s.id % workers.length).remove(s);
+            f.version++;
+        }
+    }
+
+    /** Publica o último lance de {@code game} (e o fim, se acabou). Chamar da thread que joga a partida. */
+    public void publish(int gameId, Game game) {
+        Feed f = feeds.get(gameId);
+        if (f == null) return;
+        int code = game.lastMoveCode();
+        if (code < 0) return;
+        publish(f, code, game.plyCount(), game.snapshot(), game.isGameOver() ? result(game) : 0);
+    }
+
+    /** Como {@link #publish(int, Game)}, com o lance já conhecido ({@code result} 0 = partida segue). */
+    public void publish(int gameId, int code, int ply, PositionSnapshot after, byte result) {
+        Feed f = feeds.get(gameId);
+        if (f != null) publish(f, code, ply, after, result);
+    }
+
+    private void publish(Feed f, int code, int ply, PositionSnapshot after, byte result) {
+        ByteBuffer moved = WireProtocol.moved(f.gameId, code, after.hash());
+        if (result != 0) f.append(ply, after, moved, WireProtocol.gameOver(f.gameId, result));
+        else f.append(ply, after, moved);
+        wakeAll();
+    }
+
+    static byte result(Game g) {
+        if (g.isDraw()) return WireProtocol.DRAW;
+        return g.whiteToMove() ? WireProtocol.BLACK_WINS : WireProtocol.WHITE_WINS;
+    }
+
+    private void wakeAll() {
+        signal++; // corrida benigna: basta mudar o valor
+        for (Thread t : workers) LockSupport.unpark(t);
+    }
+
+    // ---------- Envio ----------
+
+    private void workLoop(int w) {
+        int seen = signal;
+        while (running) {
+            boolean stalled = false;
+            long t0 = System.nanoTime();
+            for (Feed f : feeds.values()) {
+                boolean ended = f.ended; // lido antes do topo: o GAME_OVER final já está no anel
+                for (Subscription s : f.view(w)) {
+                    if (s.closed) continue;
+                    stalled |= service(f, s, t0);
+                    if (ended && !s.closed && s.pending == null && s.next == f.tip.head) finish(s);
+                }
+                if (ended) f.retireIfDone();
+            }
+            passes.increment();
+            passNanos.add(System.nanoTime() - t0);
+
+            // dorme até a próxima publicação; com escritas parciais, volta logo para tentar de novo
+            while (running && signal == seen) {
+                LockSupport.parkNanos(stalled ? 1_000_000L : 100_000_000L);
+                if (stalled) break;
+            }
+            seen = signal;
+        }
+    }
+
+    /** Envia ao espectador o que falta; true se ficou escrita pendente. */
+    private boolean service(Feed f, Subscription s, long now) {
+        try {
+            if (s.pending != null) {
+                if (!write(s, now)) {
+                    if (now - s.stalledSince > stallNanos) drop(s);
+                    return true;
+                }
+            }
+            Tip t = f.tip;
+            if (s.next == t.head) return false;
+
+            ByteBuffer[] batch;
+            if (s.next < 0 || t.head - s.next > window) {
+                if (s.next >= 0) resyncs.increment();
+                batch = resync(f, t);
+            } else {
+                int n = (int) (t.head - s.next);
+                batch = new ByteBuffer[n];
+                for (int i = 0; i < n; i++) batch[i] = f.ring[(int) ((s.next + i) % capacity)].duplicate();
+                VarHandle.loadLoadFence(); // as casas lidas acima antes do topo relido abaixo
+                // o anel andou enquanto líamos: a publicação em curso pode ter sobrescrito uma casa lida
+                if (f.tip.head - s.next > window) {
+                    resyncs.increment();
+                    t = f.tip;
+                    batch = resync(f, t);
+                }
+            }
+            s.next = t.head;
+            s.pending = batch;
+            s.stalledSince = now;
+            framesSent.add(batch.length);
+            if (!write(s, now)) return true;
+        } catch (IOException e) {
+            drop(s);
+        }
+        return false;
+    }
+
+    /** POSITION da posição publicada e, se a partida acabou, o GAME_OVER. */
+    private static ByteBuffer[] resync(Feed f, Tip t) {
+        ByteBuffer position = f.positionFrame(t).duplicate();
+        return t.over == null ? new ByteBuffer[] { position } : new ByteBuffer[] { position, t.over.duplicate() };
+    }
+
+    /** Escreve o pendente numa única chamada com gather; true se terminou. */
+    private boolean write(Subscription s, long now) throws IOException {
+        ByteBuffer[] b = s.pending;
+        long n = s.channel.write(b);
+        bytesSent.add(n);
+        if (n > 0) s.stalledSince = now; // lento mas andando: não é travado
+        if (b[b.length - 1].hasRemaining()) return false;
+        s.pending = null;
+        return true;
+    }
+
+    private void drop(Subscription s) {
+        dropped.increment();
+        finish(s);
+    }
+
+    /** Remove o espectador e fecha o canal dele. */
+    private void finish(Subscription s) {
+        unsubscribe(s);
+        try {
+            s.channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    // ---------- Métricas ----------
+
+    /** Quadros entregues (somando todos os espectadores). */
+    public long framesSent() { return framesSent.sum(); }
+    public long bytesSent() { return bytesSent.sum(); }
+    /** Vezes que um espectador atrasado pulou para a posição atual. */
+    public long resyncs() { return resyncs.sum(); }
+    /** Espectadores removidos por lentidão ou erro. */
+    public long dropped() { return dropped.sum(); }
+    /** Tempo médio de uma varredura de uma thread de envio, em µs. */
+    public double meanPassMicros() {
+        long p = passes.sum();
+        return p == 0 ? 0 : passNanos.sum() / 1e3 / p;
+    }
+
+    /** Para as threads de envio e fecha os canais de todos os espectadores, sem esperar a entrega. */
+    @Override
+    public void close() {
+        running = false;
+        for (Thread t : workers) LockSupport.unpark(t);
+        for (Feed f : feeds.values()) {
+            List<Subscription> all = new ArrayList<>();
+            synchronized (f) {
+                for (List<Subscription> l : f.byWorker) all.addAll(l);
+            }
+            for (Subscription s : all) finish(s);
+        }
+        feeds.clear();
+    }
+}
@@ -0,0 +1,548 @@
+package net;
+
+import ai.SearchInfo;
+import ai.SearchScheduler;
+import controller.Game;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import model.board.Move;
+import model.board.MoveCode;
+
+/**
+ * Servidor TCP de partidas, não bloqueante: uma única thread com um
+ * {@link Selector} aceita conexões, lê quadros ({@link WireProtocol}), valida
+ * e aplica os lances e empurra os lances do adversário (humano ou IA) a quem
+ * joga a partida. Todo o estado das partidas só é tocado por essa thread,
+ * então não há travas; a IA busca numa cópia da partida pelo
+ * {@link SearchScheduler} (partidas de lance rápido passam na frente das
+ * lentas) e devolve o lance por uma fila de tarefas da thread do seletor.
+ * <p>
+ * Um cliente que não lê o que recebe acumula saída pendente; passando de
+ * {@value #MAX_PENDING_BYTES} bytes a conexão é fechada.
+ * <p>
+ * Espectadores (WATCH) passam a ser servidos pelo {@link Broadcaster}: a
+ * partir daí a thread do seletor não escreve mais nessa conexão (só lê, para
+ * notar LEAVE ou o fechamento), e cada lance é serializado uma vez para todos.
+ */
+public class GameServer implements Closeable {
+
+    private static final int MAX_PENDING_BYTES = 1 << 20;
+    private static final int MAX_AI_DEPTH = 6;
+    private static final int DEFAULT_AI_MILLIS = 1000, MAX_AI_MILLIS = 60_000;
+    /** Espera antes de tentar de novo um lance da IA recusado pelo agendador. */
+    private static final long AI_RETRY_MILLIS = 100;
+    /** Buscas seguidas que falham (exceção ou sem lance) antes de encerrar a partida. */
+    private static final int MAX_AI_FAILURES = 3;
+
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final SearchScheduler scheduler;
+    private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final Broadcaster broadcaster = new Broadcaster();
+    private final Thread loop;
+    private volatile boolean running = true;
+
+    // Só a thread do seletor
+    private final Map<Integer, Hosted> games = new HashMap<>();
+    private int nextGameId = 1;
+
+    /** Partida hospedada: a posição e quem joga cada cor (null = ninguém ainda, ou a IA). */
+    private static final class Hosted {
+        final int id;
+        final Game game = new Game();
+        final Conn[] players = new Conn[2]; // [0] brancas, [1] pretas
+        final List<Conn> watchers = new ArrayList<>();
+        final int aiSide;                   // 0 brancas, 1 pretas, -1 sem IA
+        final int aiDepth;
+        final int aiMillis;                 // tempo da IA por lance
+        int aiFailures;                     // buscas seguidas sem lance
+
+        Hosted(int id, int aiSide, int aiDepth, int aiMillis) {
+            this.id = id;
+            this.aiSide = aiSide;
+            this.aiDepth = aiDepth;
+            this.aiMillis = aiMillis;
+        }
+
+        int sideToMove() {
+            return game.whiteToMove() ? 0 : 1;
+        }
+    }
+
+    /** Estado de uma conexão: buffer de leitura, fila de saída e partidas em que joga. */
+    private static final class Conn {
+        final SocketChannel channel;
+        SelectionKey key;
+        final ByteBuffer in = ByteBuffer.allocate(4096);
+        final ArrayDeque<ByteBuffer> out = new ArrayDeque<>();
+        int pendingBytes;
+        final List<Hosted> games = new ArrayList<>();
+        Broadcaster.Subscription watching; // espectador: só o Broadcaster escreve
+        boolean closed;
+
+        Conn(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    public GameServer(InetSocketAddress address, int aiThreads) throws IOException {
+        this.selector = Selector.open();
+        this.server = ServerSocketChannel.open();
+        server.bind(address);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        this.scheduler = new SearchScheduler(aiThreads);
+        this.loop = new Thread(this::run, "game-server");
+    }
+
+    /** Porta em que o servidor escuta (útil com porta 0). */
+    public int port() {
+        return server.socket().getLocalPort();
+    }
+
+    public GameServer start() {
+        loop.start();
+        return this;
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        try {
+            loop.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        scheduler.close();
+        broadcaster.close();
+    }
+
+    // ---------- Laço do seletor ----------
+
+    private void run() {
+        try {
+            while (running) {
+                selector.select();
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    try {
+                        task.run();
+                    } catch (RuntimeException e) {
+                        e.printStackTrace(); // uma tarefa com defeito não derruba o servidor
+                    }
+                }
+
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Conn c = (Conn) key.attachment();
+                    try {
+                        if (key.isReadable()) read(c);
+                        if (!c.closed && key.isValid() && key.isWritable()) flush(c);
+                    } catch (RuntimeException e) {
+                        // erro ao tratar uma conexão: só ela cai
+                        e.printStackTrace();
+                        disconnect(c);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace(); // o próprio seletor falhou: não há como continuar
+        } finally {
+            for (SelectionKey k : selector.keys()) {
+                try {
+                    k.channel().close();
+                } catch (IOException ignored) {
+                }
+            }
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private void accept() {
+        while (true) {
+            SocketChannel ch;
+            try {
+                ch = server.accept();
+            } catch (IOException e) {
+                e.printStackTrace(); // ex.: sem descritores livres; tenta de novo no próximo select
+                return;
+            }
+            if (ch == null) return;
+            try {
+                ch.configureBlocking(false);
+                ch.setOption(java.net.StandardSocketOptions.TCP_NODELAY, true);
+                Conn c = new Conn(ch);
+                c.key = ch.register(selector, SelectionKey.OP_READ, c);
+            } catch (IOException e) {
+                try {
+                    ch.close(); // só esta conexão é perdida
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    private void read(Conn c) {
+        try {
+            if (c.channel.read(c.in) < 0) {
+                disconnect(c);
+                return;
+            }
+        } catch (IOException e) {
+            disconnect(c);
+            return;
+        }
+        ByteBuffer in = c.in;
+        in.flip();
+        while (in.remaining() >= 2) {
+            int len = in.getShort(in.position()) & 0xFFFF;
+            if (len < 1 || len > WireProtocol.MAX_FRAME) {
+                disconnect(c); // fora do protocolo
+                return;
+            }
+            if (in.remaining() < 2 + len) break;
+            int end = in.position() + 2 + len;
+            in.position(in.position() + 2);
+            byte type = in.get();
+            handle(c, type, in, len - 1);
+            if (c.closed) return;
+            in.position(end);
+        }
+        in.compact();
+    }
+
+    // ---------- Mensagens ----------
+
+    private void handle(Conn c, byte type, ByteBuffer in, int payload) {
+        if (c.watching != null) {
+            // espectador: a conexão é do Broadcaster; só LEAVE interessa
+            if (type == WireProtocol.LEAVE) {
+                disconnect(c); // quadros a caminho podem intercalar com respostas: melhor reconectar
+            }
+            return;
+        }
+        switch (type) {
+            case WireProtocol.NEW_GAME -> {
+                if (payload < 2) {
+                    send(c, WireProtocol.rejected(0, WireProtocol.BAD_REQUEST, 0));
+                    return;
+                }
+                newGame(c, in.get(), in.get(), payload >= 6 ? in.getInt() : DEFAULT_AI_MILLIS);
+            }
+            case WireProtocol.JOIN -> {
+                if (payload < 4) {
+                    send(c, WireProtocol.rejected(0, WireProtocol.BAD_REQUEST, 0));
+                    return;
+                }
+                join(c, in.getInt());
+            }
+            case WireProtocol.MOVE -> {
+                if (payload < 14) {
+                    send(c, WireProtocol.rejected(0, WireProtocol.BAD_REQUEST, 0));
+                    return;
+                }
+                move(c, in.getInt(), WireProtocol.moveCode(in.getShort()), in.getLong());
+            }
+            case WireProtocol.LEAVE -> {
+                if (payload >= 4) leave(c, games.get(in.getInt()));
+            }
+            case WireProtocol.WATCH -> {
+                if (payload < 4) {
+                    send(c, WireProtocol.rejected(0, WireProtocol.BAD_REQUEST, 0));
+                    return;
+                }
+                watch(c, in.getInt());
+            }
+            default -> send(c, WireProtocol.rejected(0, WireProtocol.BAD_REQUEST, 0));
+        }
+    }
+
+    private void newGame(Conn c, byte mode, int depth, int millis) {
+        int aiSide = switch (mode) {
+            case WireProtocol.VS_AI_AS_WHITE -> 1;
+            case WireProtocol.VS_AI_AS_BLACK -> 0;
+            default -> -1;
+        };
+        Hosted h = new Hosted(nextGameId++, aiSide, Math.max(1, Math.min(MAX_AI_DEPTH, depth)),
+                Math.max(1, Math.min(MAX_AI_MILLIS, millis)));
+        int sides;
+        switch (mode) {
+            case WireProtocol.HOT_SEAT -> {
+                h.players[0] = h.players[1] = c;
+                sides = WireProtocol.SIDE_WHITE | WireProtocol.SIDE_BLACK;
+            }
+            case WireProtocol.VS_AI_AS_BLACK -> {
+                h.players[1] = c;
+                sides = WireProtocol.SIDE_BLACK;
+            }
+            case WireProtocol.VS_AI_AS_WHITE, WireProtocol.OPEN -> {
+                h.players[0] = c;
+                sides = WireProtocol.SIDE_WHITE;
+            }
+            default -> {
+                send(c, WireProtocol.rejected(0, WireProtocol.BAD_REQUEST, 0));
+                return;
+            }
+        }
+        games.put(h.id, h);
+        c.games.add(h);
+        send(c, WireProtocol.started(h.id, sides, h.game.snapshot().hash()));
+        if (h.aiSide == h.sideToMove()) startAi(h);
+    }
+
+    private void join(Conn c, int gameId) {
+        Hosted h = games.get(gameId);
+        if (h == null) {
+            send(c, WireProtocol.rejected(gameId, WireProtocol.UNKNOWN_GAME, 0));
+            return;
+        }
+        if (h.aiSide >= 0 || h.players[1] != null || h.players[0] == c) {
+            send(c, WireProtocol.rejected(gameId, WireProtocol.GAME_FULL, h.game.snapshot().hash()));
+            return;
+        }
+        h.players[1] = c;
+        c.games.add(h);
+        send(c, WireProtocol.started(h.id, WireProtocol.SIDE_BLACK, h.game.snapshot().hash()));
+    }
+
+    private void watch(Conn c, int gameId) {
+        Hosted h = games.get(gameId);
+        if (h == null) {
+            send(c, WireProtocol.rejected(gameId, WireProtocol.UNKNOWN_GAME, 0));
+            return;
+        }
+        if (!c.games.isEmpty() || !c.out.isEmpty()) {
+            // quem joga (ou ainda tem saída pendente) não pode ceder a conexão ao Broadcaster
+            send(c, WireProtocol.rejected(gameId, WireProtocol.BAD_REQUEST, h.game.snapshot().hash()));
+            return;
+        }
+        broadcaster.open(h.id, h.game);
+        c.watching = broadcaster.subscribe(h.id, c.channel);
+        h.watchers.add(c);
+    }
+
+    private void move(Conn c, int gameId, int code, long hashBefore) {
+        Hosted h = games.get(gameId);
+        if (h == null) {
+            send(c, WireProtocol.rejected(gameId, WireProtocol.UNKNOWN_GAME, 0));
+            return;
+        }
+        long hash = h.game.snapshot().hash();
+        if (h.players[h.sideToMove()] != c) {
+            send(c, WireProtocol.rejected(gameId, WireProtocol.NOT_YOUR_TURN, hash));
+        } else if (hash != hashBefore) {
+            send(c, WireProtocol.rejected(gameId, WireProtocol.OUT_OF_SYNC, hash));
+        } else if (!play(h, code)) {
+            send(c, WireProtocol.rejected(gameId, WireProtocol.ILLEGAL, hash));
+        }
+    }
+
+    private void leave(Conn c, Hosted h) {
+        if (h == null) return;
+        for (int i = 0; i < 2; i++) {
+            if (h.players[i] == c) h.players[i] = null;
+        }
+        c.games.remove(h);
+        if (h.players[0] == null && h.players[1] == null) discard(h, WireProtocol.ABORTED);
+    }
+
+    /**
+     * Tira a partida do servidor. Os espectadores recebem o GAME_OVER (com
+     * {@code result}, se a partida não tinha acabado) e o Broadcaster fecha
+     * as conexões deles depois de entregar o que falta.
+     */
+    private void discard(Hosted h, byte result) {
+        games.remove(h.id);
+        broadcaster.end(h.id, result);
+        for (Conn w : h.watchers) {
+            // a conexão já é do Broadcaster: o seletor só solta a chave
+            w.watching = null;
+            w.closed = true;
+            w.key.cancel();
+        }
+        h.watchers.clear();
+    }
+
+    /** Aplica o lance e o envia aos jogadores; dispara a IA se for a vez dela. */
+    private boolean play(Hosted h, int code) {
+        int before = h.game.plyCount();
+        h.game.move(code);
+        if (h.game.plyCount() == before) return false;
+
+        broadcaster.publish(h.id, h.game);
+        ByteBuffer moved = WireProtocol.moved(h.id, code, h.game.snapshot().hash());
+        ByteBuffer over = h.game.isGameOver() ? WireProtocol.gameOver(h.id, result(h.game)) : null;
+        for (int i = 0; i < 2; i++) {
+            Conn p = h.players[i];
+            if (p == null || (i == 1 && p == h.players[0])) continue; // mesma conexão nas duas cores: uma vez só
+            send(p, moved.duplicate());
+            if (over != null) send(p, over.duplicate());
+        }
+        if (over == null && h.aiSide == h.sideToMove()) startAi(h);
+        return true;
+    }
+
+    private static byte result(Game g) {
+        return Broadcaster.result(g);
+    }
+
+    /**
+     * Pede o lance da IA ao agendador; o resultado volta como tarefa do
+     * seletor. Se o agendador recusar (CPU saturada), tenta de novo daqui a
+     * {@value #AI_RETRY_MILLIS} ms; se a busca falhar ou terminar sem lance,
+     * também, até {@value #MAX_AI_FAILURES} vezes seguidas, e então a partida
+     * é encerrada com {@link WireProtocol#ABORTED}.
+     */
+    private void startAi(Hosted h) {
+        long hash = h.game.snapshot().hash();
+        CompletableFuture<SearchInfo> search;
+        try {
+            search = scheduler.submit(h.game, h.aiMillis, h.aiDepth);
+        } catch (RejectedExecutionException e) {
+            retryAi(h, hash);
+            return;
+        }
+        search.whenComplete((info, error) -> {
+            Move best = info == null ? null : info.bestMove();
+            if (error != null || best == null) {
+                tasks.add(() -> {
+                    if (games.get(h.id) != h || h.game.snapshot().hash() != hash) return;
+                    if (++h.aiFailures < MAX_AI_FAILURES) {
+                        retryAi(h, hash);
+                    } else {
+                        if (error != null) error.printStackTrace();
+                        abort(h);
+                    }
+                });
+                selector.wakeup();
+                return;
+            }
+            int code = MoveCode.encode(best.getFrom(), best.getTo(), best.getPromotion());
+            tasks.add(() -> {
+                // a partida pode ter sido abandonada enquanto a IA pensava
+                if (games.get(h.id) != h || h.game.snapshot().hash() != hash) return;
+                h.aiFailures = 0;
+                play(h, code);
+            });
+            selector.wakeup();
+        });
+    }
+
+    /** Pede o lance da IA de novo daqui a {@value #AI_RETRY_MILLIS} ms, se a posição não mudou. */
+    private void retryAi(Hosted h, long hash) {
+        if (!running) return;
+        CompletableFuture.delayedExecutor(AI_RETRY_MILLIS, TimeUnit.MILLISECONDS).execute(() -> {
+            tasks.add(() -> {
+                if (games.get(h.id) == h && h.game.snapshot().hash() == hash) startAi(h);
+            });
+            selector.wakeup();
+        });
+    }
+
+    /** Encerra a partida sem resultado: avisa os jogadores e os espectadores e a descarta. */
+    private void abort(Hosted h) {
+        ByteBuffer over = WireProtocol.gameOver(h.id, WireProtocol.ABORTED);
+        for (int i = 0; i < 2; i++) {
+            Conn p = h.players[i];
+            if (p == null) continue;
+            p.games.remove(h);
+            if (i == 1 && p == h.players[0]) continue;
+            send(p, over.duplicate());
+        }
+        discard(h, WireProtocol.ABORTED);
+    }
+
+    /** Métricas do agendador da IA (fila, preempções, prazos perdidos...). */
+    public SearchScheduler scheduler() {
+        return scheduler;
+    }
+
+    // ---------- Escrita ----------
+
+    private void send(Conn c, ByteBuffer frame) {
+        if (c.closed) return;
+        if (c.out.isEmpty()) {
+            try {
+                c.channel.write(frame);
+            } catch (IOException e) {
+                disconnect(c);
+                return;
+            }
+            if (!frame.hasRemaining()) return;
+        }
+        c.out.add(frame);
+        c.pendingBytes += frame.remaining();
+        if (c.pendingBytes > MAX_PENDING_BYTES) {
+            disconnect(c); // cliente lento demais
+            return;
+        }
+        c.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+    }
+
+    private void flush(Conn c) {
+        try {
+            ByteBuffer b;
+            while ((b = c.out.peek()) != null) {
+                int n = c.channel.write(b);
+                c.pendingBytes -= n;
+                if (b.hasRemaining()) return;
+                c.out.poll();
+            }
+            c.key.interestOps(SelectionKey.OP_READ);
+        } catch (IOException e) {
+            disconnect(c);
+        }
+    }
+
+    private void disconnect(Conn c) {
+        if (c.closed) return;
+        c.closed = true;
+        if (c.watching != null) {
+            broadcaster.unsubscribe(c.watching);
+            Hosted h = games.get(c.watching.gameId());
+            if (h != null) h.watchers.remove(c);
+            c.watching = null;
+        }
+        for (Hosted h : new ArrayList<>(c.games)) leave(c, h);
+        c.key.cancel();
+        try {
+            c.channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /** {@code java net.GameServer [porta] [threadsIA]} */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7777;
+        int aiThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        GameServer s = new GameServer(new InetSocketAddress(port), aiThreads).start();
+        System.out.println("Servidor de partidas na porta " + s.port());
+    }
+}
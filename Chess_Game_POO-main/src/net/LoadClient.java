@@ -0,0 +1,202 @@
+package net;
+
+import controller.Game;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Gerador de carga para o {@link GameServer}: cada conexão (uma thread,
+ * socket bloqueante) abre uma partida e joga lances legais aleatórios,
+ * medindo o tempo entre enviar o MOVE e receber o MOVED correspondente. Cada
+ * MOVED é conferido contra o hash da cópia local da partida.
+ * <p>
+ * No modo "ia" o cliente joga de brancas contra a IA e a latência medida é
+ * só a do próprio lance; a resposta da IA é esperada antes do próximo.
+ * <pre>
+ * java net.LoadClient [conexões] [segundos] [hot|ia] [profundidadeIA] [host:porta]
+ * </pre>
+ * Sem host:porta, sobe um servidor na própria JVM (porta livre de localhost).
+ */
+public class LoadClient {
+
+    /** Resultado de uma conexão. */
+    private static final class Stats {
+        long[] latencies = new long[1 << 12];
+        int count;
+        long sent, received, games, desyncs, rejected;
+
+        void add(long nanos) {
+            if (count == latencies.length) latencies = Arrays.copyOf(latencies, count * 2);
+            latencies[count++] = nanos;
+        }
+    }
+
+    private final InetSocketAddress address;
+    private final boolean vsAi;
+    private final int aiDepth;
+
+    public LoadClient(InetSocketAddress address, boolean vsAi, int aiDepth) {
+        this.address = address;
+        this.vsAi = vsAi;
+        this.aiDepth = aiDepth;
+    }
+
+    /** Roda {@code connections} conexões por {@code seconds} segundos e imprime o relatório. */
+    public void run(int connections, int seconds) throws Exception {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        ExecutorService pool = Executors.newFixedThreadPool(connections);
+        Stats total = new Stats();
+        long t0 = System.nanoTime();
+        try {
+            Future<?>[] parts = new Future<?>[connections];
+            Stats[] stats = new Stats[connections];
+            for (int i = 0; i < connections; i++) {
+                Stats s = stats[i] = new Stats();
+                long seed = i;
+                parts[i] = pool.submit(() -> {
+                    play(s, deadline, seed);
+                    return null;
+                });
+            }
+            for (Future<?> f : parts) f.get();
+            for (Stats s : stats) {
+                for (int i = 0; i < s.count; i++) total.add(s.latencies[i]);
+                total.sent += s.sent;
+                total.received += s.received;
+                total.games += s.games;
+                total.desyncs += s.desyncs;
+                total.rejected += s.rejected;
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        double secs = (System.nanoTime() - t0) / 1e9;
+        report(total, connections, secs);
+    }
+
+    private void play(Stats s, long deadline, long seed) throws IOException {
+        SplittableRandom rnd = new SplittableRandom(seed);
+        try (SocketChannel ch = SocketChannel.open(address)) {
+            ch.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            ByteBuffer in = ByteBuffer.allocate(4096).flip();
+            while (System.nanoTime() < deadline) {
+                write(ch, WireProtocol.newGame(vsAi ? WireProtocol.VS_AI_AS_WHITE : WireProtocol.HOT_SEAT, aiDepth), s);
+                ByteBuffer f;
+                do f = readFrame(ch, in, s); // pula o GAME_OVER da partida anterior
+                while (f.get() != WireProtocol.STARTED);
+                int gameId = f.getInt();
+                Game local = new Game();
+                s.games++;
+
+                while (!local.isGameOver() && local.plyCount() < 200 && System.nanoTime() < deadline) {
+                    int[] legal = local.legalMoveCodes();
+                    int code = legal[rnd.nextInt(legal.length)];
+                    long start = System.nanoTime();
+                    write(ch, WireProtocol.move(gameId, code, local.snapshot().hash()), s);
+                    if (!awaitMove(ch, in, s, local, gameId)) break;
+                    s.add(System.nanoTime() - start);
+                    if (vsAi && !local.isGameOver() && !awaitMove(ch, in, s, local, gameId)) break;
+                }
+                write(ch, WireProtocol.leave(gameId), s);
+            }
+        }
+    }
+
+    /** Lê até o próximo MOVED da partida e o aplica na cópia local; false se o lance foi recusado. */
+    private static boolean awaitMove(SocketChannel ch, ByteBuffer in, Stats s, Game local, int gameId) throws IOException {
+        while (true) {
+            ByteBuffer f = readFrame(ch, in, s);
+            byte type = f.get();
+            if (f.getInt() != gameId) continue;
+            if (type == WireProtocol.MOVED) {
+                int code = WireProtocol.moveCode(f.getShort());
+                long hash = f.getLong();
+                local.move(code);
+                if (local.snapshot().hash() != hash) s.desyncs++;
+                return true;
+            }
+            if (type == WireProtocol.REJECTED) {
+                s.rejected++;
+                return false;
+            }
+            // GAME_OVER: o fim já aparece na cópia local
+        }
+    }
+
+    private static void write(SocketChannel ch, ByteBuffer b, Stats s) throws IOException {
+        while (b.hasRemaining()) ch.write(b);
+        s.sent++;
+    }
+
+    /** Próximo quadro (posicionado no byte de tipo), lendo do socket quando preciso. */
+    private static ByteBuffer readFrame(SocketChannel ch, ByteBuffer in, Stats s) throws IOException {
+        fill(ch, in, 2);
+        int len = in.getShort(in.position()) & 0xFFFF;
+        fill(ch, in, 2 + len);
+        in.position(in.position() + 2);
+        ByteBuffer f = in.slice();
+        f.limit(len);
+        in.position(in.position() + len);
+        s.received++;
+        return f;
+    }
+
+    private static void fill(SocketChannel ch, ByteBuffer in, int need) throws IOException {
+        if (in.remaining() >= need) return;
+        in.compact();
+        while (in.position() < need) {
+            if (ch.read(in) < 0) throw new EOFException("Servidor fechou a conexão");
+        }
+        in.flip();
+    }
+
+    private static void report(Stats t, int connections, double secs) {
+        long[] l = Arrays.copyOf(t.latencies, t.count);
+        Arrays.sort(l);
+        System.out.printf("%d conexões, %.1f s: %,d partidas, %,d lances%n", connections, secs, t.games, t.count);
+        System.out.printf("mensagens: %,d enviadas + %,d recebidas = %,.0f msg/s (%,.0f lances/s)%n",
+                t.sent, t.received, (t.sent + t.received) / secs, t.count / secs);
+        if (l.length > 0) {
+            System.out.printf("latência do lance (µs): p50 %.0f  p90 %.0f  p99 %.0f  p99.9 %.0f  máx %.0f%n",
+                    pct(l, 0.50), pct(l, 0.90), pct(l, 0.99), pct(l, 0.999), l[l.length - 1] / 1e3);
+        }
+        System.out.printf("hash divergente: %d, recusados: %d%n", t.desyncs, t.rejected);
+    }
+
+    private static double pct(long[] sorted, double p) {
+        int i = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, i)] / 1e3;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        boolean vsAi = args.length > 2 && args[2].equalsIgnoreCase("ia");
+        int depth = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+
+        GameServer embedded = null;
+        InetSocketAddress address;
+        if (args.length > 4) {
+            String[] hp = args[4].split(":");
+            address = new InetSocketAddress(hp[0], Integer.parseInt(hp[1]));
+        } else {
+            embedded = new GameServer(new InetSocketAddress("127.0.0.1", 0),
+                    Runtime.getRuntime().availableProcessors()).start();
+            address = new InetSocketAddress("127.0.0.1", embedded.port());
+        }
+        try {
+            new LoadClient(address, vsAi, depth).run(connections, seconds);
+        } finally {
+            if (embedded != null) embedded.close();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package net;
+
+import controller.PositionSnapshot;
+import java.nio.ByteBuffer;
+
+/**
+ * Protocolo binário do servidor de partidas.
+ *
+ * <pre>
+ * quadro    short tamanho (do tipo + dados), byte tipo, dados
+ * cliente → servidor
+ *   NEW_GAME  byte modo, byte profundidadeIA [, int msPorLanceIA]
+ *   JOIN      int partida
+ *   MOVE      int partida, short lance, long hashAntes
+ *   LEAVE     int partida
+ *   WATCH     int partida
+ * servidor → cliente
+ *   STARTED   int partida, byte lados, long hash
+ *   MOVED     int partida, short lance, long hashDepois
+ *   REJECTED  int partida, byte motivo, long hashAtual
+ *   GAME_OVER int partida, byte resultado
+ *   POSITION  int partida, short ply, byte lado (1 = brancas), byte roque,
+ *             byte enPassant (-1 = nenhum), byte casas[32], long hash
+ * </pre>
+ * Inteiros em big-endian. O lance é um {@link model.board.MoveCode} (15 bits).
+ * O hash é o Zobrist da posição ({@link controller.PositionSnapshot#hash()}):
+ * o cliente manda o da posição em que acha que está jogando e o servidor
+ * recusa o lance com {@link #OUT_OF_SYNC} se não for o da partida; cada MOVED
+ * traz o hash resultante para o cliente conferir o seu.
+ * Lados: bit 1 = brancas, bit 2 = pretas (as cores que o cliente joga).
+ * <p>
+ * Espectadores (WATCH) recebem primeiro um POSITION com a posição atual e
+ * depois os MOVED/GAME_OVER da partida; quem fica para trás recebe um novo
+ * POSITION no lugar dos lances perdidos. Em POSITION cada casa ocupa 4 bits
+ * ({@link PositionSnapshot#codeAt}), duas por byte, a casa par no nibble alto.
+ */
+final class WireProtocol {
+
+    static final byte NEW_GAME = 1, JOIN = 2, MOVE = 3, LEAVE = 4, WATCH = 5;
+    static final byte STARTED = 16, MOVED = 17, REJECTED = 18, GAME_OVER = 19, POSITION = 20;
+
+    /** Modos de NEW_GAME. */
+    static final byte HOT_SEAT = 0, VS_AI_AS_WHITE = 1, VS_AI_AS_BLACK = 2, OPEN = 3;
+
+    /** Motivos de REJECTED. */
+    static final byte UNKNOWN_GAME = 1, NOT_YOUR_TURN = 2, OUT_OF_SYNC = 3, ILLEGAL = 4, GAME_FULL = 5, BAD_REQUEST = 6;
+
+    /** Resultados de GAME_OVER. ABORTED: a partida foi encerrada sem resultado (ex.: a IA falhou). */
+    static final byte WHITE_WINS = 1, BLACK_WINS = 2, DRAW = 3, ABORTED = 4;
+
+    static final int SIDE_WHITE = 1, SIDE_BLACK = 2;
+
+    /** Cabeçalho do quadro: tamanho + tipo. */
+    static final int HEADER = 3;
+    static final int MAX_FRAME = 64;
+
+    private WireProtocol() {}
+
+    static ByteBuffer newGame(byte mode, int aiDepth) {
+        return frame(NEW_GAME, 2).put(mode).put((byte) aiDepth).flip();
+    }
+
+    static ByteBuffer newGame(byte mode, int aiDepth, int aiMillis) {
+        return frame(NEW_GAME, 6).put(mode).put((byte) aiDepth).putInt(aiMillis).flip();
+    }
+
+    static ByteBuffer join(int gameId) {
+        return frame(JOIN, 4).putInt(gameId).flip();
+    }
+
+    static ByteBuffer move(int gameId, int code, long hashBefore) {
+        return frame(MOVE, 14).putInt(gameId).putShort((short) code).putLong(hashBefore).flip();
+    }
+
+    static ByteBuffer leave(int gameId) {
+        return frame(LEAVE, 4).putInt(gameId).flip();
+    }
+
+    static ByteBuffer started(int gameId, int sides, long hash) {
+        return frame(STARTED, 13).putInt(gameId).put((byte) sides).putLong(hash).flip();
+    }
+
+    static ByteBuffer moved(int gameId, int code, long hashAfter) {
+        return frame(MOVED, 14).putInt(gameId).putShort((short) code).putLong(hashAfter).flip();
+    }
+
+    static ByteBuffer rejected(int gameId, byte reason, long hash) {
+        return frame(REJECTED, 13).putInt(gameId).put(reason).putLong(hash).flip();
+    }
+
+    static ByteBuffer gameOver(int gameId, byte result) {
+        return frame(GAME_OVER, 5).putInt(gameId).put(result).flip();
+    }
+
+    static ByteBuffer watch(int gameId) {
+        return frame(WATCH, 4).putInt(gameId).flip();
+    }
+
+    static ByteBuffer position(int gameId, int ply, PositionSnapshot p) {
+        ByteBuffer b = frame(POSITION, 49).putInt(gameId).putShort((short) ply)
+                .put((byte) (p.whiteToMove() ? 1 : 0)).put((byte) p.castlingRights()).put((byte) p.epSquare());
+        for (int sq = 0; sq < 64; sq += 2) b.put((byte) (p.codeAt(sq) << 4 | p.codeAt(sq + 1)));
+        return b.putLong(p.hash()).flip();
+    }
+
+    private static ByteBuffer frame(byte type, int payload) {
+        ByteBuffer b = ByteBuffer.allocate(HEADER + payload);
+        return b.putShort((short) (1 + payload)).put(type);
+    }
+
+    /** Lance lido de um short (sem sinal). */
+    static int moveCode(short s) {
+        return s & 0x7FFF;
+    }
+}
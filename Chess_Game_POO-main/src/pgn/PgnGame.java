@@ -0,0 +1,48 @@
+package pgn;
+
+import controller.Game;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import model.board.Move;
+
+/** Uma partida lida de um PGN e já reproduzida em {@link Game}. */
+public class PgnGame {
+
+    private final Map<String, String> tags;
+    private final List<String> san;
+    private final List<Move> moves;
+    private final String result;
+    private final Game game;
+    private final String error;
+
+    public PgnGame(Map<String, String> tags, List<String> san, List<Move> moves,
+                   String result, Game game, String error) {
+        this.tags = Collections.unmodifiableMap(tags);
+        this.san = Collections.unmodifiableList(san);
+        this.moves = Collections.unmodifiableList(moves);
+        this.result = result;
+        this.game = game;
+        this.error = error;
+    }
+
+    /** Tags do cabeçalho na ordem do arquivo (Event, Site, White, ...). */
+    public Map<String, String> getTags() { return tags; }
+    public String getTag(String name) { return tags.get(name); }
+
+    /** Lances SAN como aparecem no arquivo. */
+    public List<String> getSan() { return san; }
+
+    /** Lances reproduzidos com sucesso (até o primeiro erro, se houver). */
+    public List<Move> getMoves() { return moves; }
+
+    /** "1-0", "0-1", "1/2-1/2" ou "*". */
+    public String getResult() { return result; }
+
+    /** Partida na posição final reproduzida. */
+    public Game getGame() { return game; }
+
+    /** Mensagem do primeiro lance inválido, ou null se a partida foi toda reproduzida. */
+    public String getError() { return error; }
+    public boolean isValid() { return error == null; }
+}
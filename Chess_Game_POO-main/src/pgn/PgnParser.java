@@ -0,0 +1,131 @@
+package pgn;
+
+import controller.Game;
+import controller.San;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import model.board.Move;
+
+/**
+ * Interpreta o texto de UMA partida PGN (tags + movetext) e reproduz os lances
+ * em {@link Game}. Ignora comentários {...} e ;, variantes (...), NAGs ($n) e
+ * números de lance. Sem estado: pode ser usado por várias threads.
+ */
+public final class PgnParser {
+
+    private PgnParser() {}
+
+    public static PgnGame parse(CharSequence text) {
+        Map<String, String> tags = new LinkedHashMap<>();
+        List<String> san = new ArrayList<>();
+        String result = "*";
+
+        int n = text.length();
+        int i = 0;
+        int braces = 0, parens = 0;
+        while (i < n) {
+            char ch = text.charAt(i);
+            if (braces > 0) {
+                if (ch == '}') braces--;
+                i++;
+            } else if (ch == '{') {
+                braces++;
+                i++;
+            } else if (ch == ';') {
+                while (i < n && text.charAt(i) != '\n') i++;
+            } else if (ch == '(') {
+                parens++;
+                i++;
+            } else if (ch == ')') {
+                if (parens > 0) parens--;
+                i++;
+            } else if (ch == '[' && parens == 0) {
+                i = parseTag(text, i, tags);
+            } else if (ch <= ' ') {
+                i++;
+            } else {
+                int start = i;
+                while (i < n && !isDelimiter(text.charAt(i))) i++;
+                if (parens > 0) continue;
+                String tok = stripMoveNumber(text, start, i);
+                if (tok == null) continue;
+                if (tok.equals("1-0") || tok.equals("0-1") || tok.equals("1/2-1/2") || tok.equals("*")) {
+                    result = tok;
+                } else if (tok.charAt(0) != '$' && !tok.equals("e.p.")) {
+                    san.add(tok);
+                }
+            }
+        }
+        if (tags.containsKey("Result") && result.equals("*")) result = tags.get("Result");
+        return replay(tags, san, result);
+    }
+
+    private static PgnGame replay(Map<String, String> tags, List<String> san, String result) {
+        Game game;
+        String fen = tags.get("FEN");
+        try {
+            game = (fen != null) ? Game.fromFen(fen) : new Game();
+        } catch (IllegalArgumentException e) {
+            return new PgnGame(tags, san, List.of(), result, new Game(), "FEN inválido: " + fen);
+        }
+
+        List<Move> moves = new ArrayList<>(san.size());
+        String error = null;
+        for (int ply = 0; ply < san.size(); ply++) {
+            Move m = San.parse(game, san.get(ply));
+            if (m == null) {
+                error = "Lance inválido no ply " + (ply + 1) + ": " + san.get(ply);
+                break;
+            }
+            int before = game.plyCount();
+            game.move(m.getFrom(), m.getTo(), m.getPromotion());
+            if (game.plyCount() == before) {
+                // Game.move não aplica nada com a partida encerrada
+                error = "Lance não aplicado no ply " + (ply + 1) + ": " + san.get(ply)
+                        + (game.isGameOver() ? " (partida já encerrada)" : "");
+                break;
+            }
+            moves.add(m);
+        }
+        return new PgnGame(tags, san, moves, result, game, error);
+    }
+
+    /** Lê [Nome "valor"] e devolve o índice após o ']'. */
+    private static int parseTag(CharSequence text, int i, Map<String, String> tags) {
+        int n = text.length();
+        i++; // '['
+        while (i < n && text.charAt(i) == ' ') i++;
+        int ns = i;
+        while (i < n && text.charAt(i) > ' ' && text.charAt(i) != ']') i++;
+        String name = text.subSequence(ns, i).toString();
+        while (i < n && text.charAt(i) != '"' && text.charAt(i) != ']') i++;
+        StringBuilder value = new StringBuilder();
+        if (i < n && text.charAt(i) == '"') {
+            for (i++; i < n && text.charAt(i) != '"'; i++) {
+                char ch = text.charAt(i);
+                if (ch == '\\' && i + 1 < n) ch = text.charAt(++i);
+                value.append(ch);
+            }
+        }
+        while (i < n && text.charAt(i) != ']') i++;
+        if (!name.isEmpty()) tags.put(name, value.toString());
+        return i + 1;
+    }
+
+    private static boolean isDelimiter(char ch) {
+        return ch <= ' ' || ch == '{' || ch == '(' || ch == ')' || ch == ';' || ch == '[';
+    }
+
+    /** Remove o prefixo "12." / "12..." de um token; null se não sobrar lance. */
+    private static String stripMoveNumber(CharSequence text, int start, int end) {
+        int i = start;
+        while (i < end && Character.isDigit(text.charAt(i))) i++;
+        if (i > start && i < end && text.charAt(i) == '.') {
+            while (i < end && text.charAt(i) == '.') i++;
+            start = i;
+        }
+        return start < end ? text.subSequence(start, end).toString() : null;
+    }
+}
@@ -0,0 +1,191 @@
+package pgn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Leitor de arquivos PGN grandes (dezenas de GB) por memória mapeada.
+ *
+ * O arquivo é lido em janelas mapeadas de {@link #WINDOW} bytes; só a janela
+ * corrente de cada thread fica mapeada. O Spliterator divide a faixa de bytes
+ * ao meio, ajustando o corte para o próximo início de partida, então
+ * {@code games().parallel()} distribui partidas entre os núcleos (mesma ideia
+ * de {@code Files.lines}). Cada partida é reproduzida em {@link controller.Game}.
+ */
+public class PgnReader implements Closeable {
+
+    /** Tamanho da janela mapeada por thread. */
+    static final int WINDOW = 64 << 20;
+    /** Abaixo disso a faixa não é mais dividida. */
+    private static final long MIN_SPLIT = 1 << 20;
+
+    private final FileChannel channel;
+    private final long size;
+
+    public PgnReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+    }
+
+    /** Stream preguiçoso das partidas, na ordem do arquivo (use .parallel() para paralelizar). */
+    public Stream<PgnGame> games() {
+        return StreamSupport.stream(new GameSpliterator(0, size), false);
+    }
+
+    /** Entrega cada partida ao callback, em paralelo (ordem não garantida). */
+    public void forEach(Consumer<PgnGame> action) {
+        games().parallel().forEach(action);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // ---------- Janela mapeada ----------
+
+    /** Acesso byte a byte ao arquivo, remapeando a janela quando necessário. */
+    private final class Window {
+        private MappedByteBuffer buf;
+        private long start = 0, end = 0;
+
+        int get(long pos) {
+            if (pos < start || pos >= end) remap(pos);
+            return buf.get((int) (pos - start)) & 0xFF;
+        }
+
+        private void remap(long pos) {
+            long len = Math.min(WINDOW, size - pos);
+            try {
+                buf = channel.map(FileChannel.MapMode.READ_ONLY, pos, len);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            start = pos;
+            end = pos + len;
+        }
+    }
+
+    /**
+     * Procura o início da próxima partida em [from, limit): uma linha que começa
+     * com '[' depois de já ter visto movetext (fora de comentários {...}).
+     * Retorna {@code limit} se não houver.
+     */
+    private long nextGameStart(Window w, long from, long limit, boolean sawMovetext) {
+        long pos = from;
+        int braces = 0;
+        boolean lineStart = (from == 0) || w.get(from - 1) == '\n';
+        while (pos < limit) {
+            int b = w.get(pos);
+            if (lineStart && braces == 0) {
+                if (b == '[') {
+                    if (sawMovetext) return pos;
+                } else if (b > ' ' && b != '%') {
+                    sawMovetext = true;
+                }
+            }
+            if (b == '{') braces++;
+            else if (b == '}' && braces > 0) braces--;
+            lineStart = (b == '\n');
+            pos++;
+        }
+        return limit;
+    }
+
+    // ---------- Spliterator ----------
+
+    private final class GameSpliterator implements Spliterator<PgnGame> {
+        private long pos;
+        private final long end;
+        private final Window window = new Window();
+        private byte[] text = new byte[4096];
+
+        GameSpliterator(long pos, long end) {
+            this.pos = pos;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super PgnGame> action) {
+            while (pos < end && isBlank(window.get(pos))) pos++;
+            if (pos >= end) return false;
+
+            long next = nextGameStart(window, pos, end, false);
+            int len = (int) Math.min(Integer.MAX_VALUE - 8, next - pos);
+            if (text.length < len) text = Arrays.copyOf(text, Math.max(len, text.length * 2));
+            for (int i = 0; i < len; i++) text[i] = (byte) window.get(pos + i);
+            pos = next;
+
+            action.accept(PgnParser.parse(new String(text, 0, len, StandardCharsets.UTF_8)));
+            return true;
+        }
+
+        @Override
+        public Spliterator<PgnGame> trySplit() {
+            long remaining = end - pos;
+            if (remaining < MIN_SPLIT) return null;
+            long mid = pos + remaining / 2;
+            Window probe = new Window();
+            long cut = nextGameStart(probe, mid, end, false);
+            if (cut <= pos || cut >= end) return null;
+            GameSpliterator prefix = new GameSpliterator(pos, cut);
+            pos = cut;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return (end - pos) / 1024; // ~1 KB por partida
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | IMMUTABLE;
+        }
+
+        private boolean isBlank(int b) {
+            return b <= ' ';
+        }
+    }
+
+    /**
+     * Mede a vazão: {@code java pgn.PgnReader arquivo.pgn [threads]}.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("uso: java pgn.PgnReader arquivo.pgn [threads]");
+            return;
+        }
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        AtomicLong games = new AtomicLong(), plies = new AtomicLong(), errors = new AtomicLong();
+        long t0 = System.nanoTime();
+        try (PgnReader reader = new PgnReader(Path.of(args[0]))) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                pool.submit(() -> reader.forEach(g -> {
+                    games.incrementAndGet();
+                    plies.addAndGet(g.getMoves().size());
+                    if (!g.isValid()) errors.incrementAndGet();
+                })).get();
+            } finally {
+                pool.shutdown();
+            }
+        }
+        double s = (System.nanoTime() - t0) / 1e9;
+        System.out.printf("%d partidas, %d plies, %d com erro em %.2f s (%,.0f partidas/s, %d threads)%n",
+                games.get(), plies.get(), errors.get(), s, games.get() / s, threads);
+    }
+}
@@ -0,0 +1,140 @@
+package trace;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+/**
+ * Eventos do Java Flight Recorder do jogo e da IA, para descobrir para onde
+ * foi o tempo quando "a IA travou": lance aplicado (com a checagem de
+ * legalidade e de fim de partida), busca iniciada/iteração/terminada,
+ * atualização da interface e imagens escaladas fora do cache.
+ * <pre>
+ * java -XX:StartFlightRecording=filename=jogo.jfr,settings=profile view.ChessGUI
+ * jfr print --events 'chess.*' jogo.jfr
+ * </pre>
+ * Sem gravação, cada ponto de emissão custa um teste de {@code isEnabled()}:
+ * o evento não escapa e a JIT elimina a alocação; os tempos parciais só são
+ * medidos quando o evento está ligado.
+ * <p>
+ * {@link MoveApplied} acontece a cada nó da busca, então por padrão só é
+ * gravado acima de {@value #MOVE_THRESHOLD}; para ver todos, zere o
+ * {@code threshold} de {@code chess.MoveApplied} num arquivo .jfc próprio.
+ */
+public final class ChessEvents {
+
+    static final String MOVE_THRESHOLD = "1 ms";
+
+    private ChessEvents() {}
+
+    @Name("chess.MoveApplied")
+    @Label("Lance aplicado")
+    @Category({ "Xadrez", "Partida" })
+    @Description("Game.move: legalidade, execução e checagem de fim de partida")
+    @Threshold(MOVE_THRESHOLD)
+    @StackTrace(false)
+    public static final class MoveApplied extends Event {
+        @Label("Ply depois do lance")
+        public int ply;
+
+        @Label("Lance (MoveCode)")
+        public int code;
+
+        @Label("Checagem de legalidade")
+        @Timespan
+        public long legalityNanos;
+
+        @Label("Checagem de fim de partida")
+        @Description("Game.checkGameEnd: mate, afogamento e empates")
+        @Timespan
+        public long endCheckNanos;
+
+        @Label("Partida terminou")
+        public boolean gameOver;
+    }
+
+    @Name("chess.SearchStarted")
+    @Label("Busca iniciada")
+    @Category({ "Xadrez", "IA" })
+    @StackTrace(false)
+    public static final class SearchStarted extends Event {
+        @Label("Posição (FEN)")
+        public String fen;
+
+        @Label("Profundidade máxima")
+        public int maxDepth;
+
+        @Label("Avaliador")
+        public String evaluator;
+    }
+
+    @Name("chess.SearchIteration")
+    @Label("Iteração da busca")
+    @Category({ "Xadrez", "IA" })
+    @StackTrace(false)
+    public static final class SearchIteration extends Event {
+        @Label("Profundidade")
+        public int depth;
+
+        @Label("Pontuação")
+        public double score;
+
+        @Label("Nós (acumulados)")
+        public long nodes;
+
+        @Label("Melhor lance")
+        public String bestMove;
+    }
+
+    @Name("chess.SearchFinished")
+    @Label("Busca terminada")
+    @Category({ "Xadrez", "IA" })
+    @StackTrace(false)
+    public static final class SearchFinished extends Event {
+        @Label("Profundidade completa")
+        public int depth;
+
+        @Label("Nós")
+        public long nodes;
+
+        @Label("Interrompida")
+        @Description("Parou por prazo, limite de nós ou stop antes da profundidade máxima")
+        public boolean aborted;
+
+        @Label("Melhor lance")
+        public String bestMove;
+    }
+
+    @Name("chess.GuiRefresh")
+    @Label("Atualização da interface")
+    @Category({ "Xadrez", "Interface" })
+    @StackTrace(false)
+    public static final class GuiRefresh extends Event {
+        @Label("Ply mostrado")
+        public int ply;
+
+        @Label("Lances na lista")
+        public int plies;
+    }
+
+    @Name("chess.ImageScaled")
+    @Label("Imagem escalada")
+    @Category({ "Xadrez", "Interface" })
+    @Description("Falta no cache do ImageUtil: leitura e redimensionamento")
+    public static final class ImageScaled extends Event {
+        @Label("Arquivo")
+        public String file;
+
+        @Label("Tamanho (px)")
+        public int size;
+
+        @Label("Leitura")
+        @Timespan
+        public long loadNanos;
+    }
+}
@@ -0,0 +1,322 @@
+package uci;
+
+import ai.Evaluator;
+import ai.IANivel3;
+import ai.SearchInfo;
+import ai.SearchLimits;
+import controller.Game;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import model.board.Move;
+import model.board.Position;
+
+/**
+ * Front end UCI (Universal Chess Interface) via stdin/stdout, sem interface gráfica.
+ * Não referencia nenhuma classe de {@code view}, então não carrega AWT/Swing.
+ *
+ * Comandos: uci, isready, setoption, ucinewgame, position, go, stop, ponderhit,
+ * bench e quit.
+ */
+public final class UciMain {
+
+    private static final String NAME = "My word purple";
+    private static final String AUTHOR = "ChessGame";
+    private static final int BENCH_DEPTH = 3;
+
+    /** Partidas do bench (lances UCI a partir da posição inicial). */
+    private static final String[] BENCH_LINES = {
+        "",
+        "e2e4 e7e5 g1f3 b8c6 f1b5 a7a6",
+        "d2d4 d7d5 c2c4 e7e6 b1c3 g8f6 c1g5 f8e7",
+        "e2e4 c7c5 g1f3 d7d6 d2d4 c5d4 f3d4 g8f6 b1c3 a7a6",
+        "e2e4 e7e5 g1f3 b8c6 f1c4 f8c5 e1g1 g8f6 d2d3 e8g8",
+        "d2d4 g8f6 c2c4 g7g6 b1c3 f8g7 e2e4 d7d6 g1f3 e8g8 f1e2 e7e5",
+    };
+
+    private final BufferedReader in;
+    private final PrintStream out;
+
+    private Game game = new Game();
+    private String evaluatorName = "classic";
+
+    // Busca em andamento (no máximo uma)
+    private Thread searchThread;
+    private SearchLimits limits;
+    private volatile CountDownLatch release;   // segura o bestmove em ponder/infinite
+    private long ponderMovetime;               // prazo a aplicar no ponderhit (0 = nenhum)
+
+    public UciMain(InputStream in, PrintStream out) {
+        this.in = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.out = out;
+    }
+
+    public static void main(String[] args) throws IOException {
+        UciMain uci = new UciMain(System.in, System.out);
+        if (args.length > 0) {
+            // Execução em lote: "java uci.UciMain bench [profundidade]"
+            uci.handle(String.join(" ", args));
+            return;
+        }
+        uci.loop();
+    }
+
+    public void loop() throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (!handle(line.trim())) break;
+        }
+        stopSearch();
+    }
+
+    /** Processa uma linha; retorna false em "quit". */
+    boolean handle(String line) {
+        if (line.isEmpty()) return true;
+        String[] t = line.split("\\s+");
+        switch (t[0]) {
+            case "uci" -> {
+                out.println("id name " + NAME);
+                out.println("id author " + AUTHOR);
+                out.println("option name Evaluator type combo default classic var classic var nnue");
+                out.println("option name Ponder type check default false");
+                out.println("uciok");
+            }
+            case "isready" -> out.println("readyok");
+            case "setoption" -> setOption(t);
+            case "ucinewgame" -> {
+                stopSearch();
+                game = new Game();
+            }
+            case "position" -> {
+                stopSearch();
+                position(t);
+            }
+            case "go" -> {
+                try {
+                    go(t);
+                } catch (RuntimeException e) {
+                    // parâmetro sem valor ou número malformado: o motor segue esperando comandos
+                    out.println("info string go inválido: " + e.getMessage());
+                }
+            }
+            case "stop" -> stopSearch();
+            case "ponderhit" -> ponderHit();
+            case "bench" -> {
+                try {
+                    bench(t.length > 1 ? Integer.parseInt(t[1]) : BENCH_DEPTH);
+                } catch (RuntimeException e) {
+                    out.println("info string bench inválido: " + e.getMessage());
+                }
+            }
+            case "quit" -> {
+                return false;
+            }
+            default -> out.println("info string comando desconhecido: " + t[0]);
+        }
+        out.flush();
+        return true;
+    }
+
+    // ---------- Comandos ----------
+
+    private void setOption(String[] t) {
+        // setoption name <id> [value <x>]
+        String name = null, value = null;
+        for (int i = 1; i < t.length; i++) {
+            if (t[i].equals("name") && i + 1 < t.length) name = t[++i];
+            else if (t[i].equals("value") && i + 1 < t.length) value = t[++i];
+        }
+        if ("Evaluator".equalsIgnoreCase(name) && value != null) {
+            evaluatorName = value;
+            if (value.equalsIgnoreCase("nnue") && System.getProperty("ai.nnue.file") == null) {
+                out.println("info string sem -Dai.nnue.file: a rede NNUE é a substituta (só PSQT, igual à clássica)");
+            }
+        }
+    }
+
+    private void position(String[] t) {
+        int i = 1;
+        if (i < t.length && t[i].equals("startpos")) {
+            game = new Game();
+            i++;
+        } else if (i < t.length && t[i].equals("fen")) {
+            StringBuilder fen = new StringBuilder();
+            for (i++; i < t.length && !t[i].equals("moves"); i++) {
+                if (fen.length() > 0) fen.append(' ');
+                fen.append(t[i]);
+            }
+            try {
+                game = Game.fromFen(fen);
+            } catch (IllegalArgumentException e) {
+                out.println("info string " + e.getMessage());
+                game = new Game();
+                return;
+            }
+        }
+        if (i < t.length && t[i].equals("moves")) {
+            for (i++; i < t.length; i++) {
+                if (!applyUciMove(game, t[i])) {
+                    out.println("info string lance ilegal: " + t[i]);
+                    break;
+                }
+            }
+        }
+    }
+
+    private void go(String[] t) {
+        stopSearch();
+        int depth = 0;
+        long nodes = 0, movetime = 0, wtime = -1, btime = -1, winc = 0, binc = 0;
+        int movestogo = 0;
+        boolean ponder = false, infinite = false;
+        for (int i = 1; i < t.length; i++) {
+            switch (t[i]) {
+                case "depth" -> depth = Integer.parseInt(t[++i]);
+                case "nodes" -> nodes = Long.parseLong(t[++i]);
+                case "movetime" -> movetime = Long.parseLong(t[++i]);
+                case "wtime" -> wtime = Long.parseLong(t[++i]);
+                case "btime" -> btime = Long.parseLong(t[++i]);
+                case "winc" -> winc = Long.parseLong(t[++i]);
+                case "binc" -> binc = Long.parseLong(t[++i]);
+                case "movestogo" -> movestogo = Integer.parseInt(t[++i]);
+                case "ponder" -> ponder = true;
+                case "infinite" -> infinite = true;
+                default -> { /* ignora parâmetros não suportados */ }
+            }
+        }
+
+        long budget = movetime;
+        long myTime = game.whiteToMove() ? wtime : btime;
+        if (budget == 0 && myTime >= 0) {
+            long inc = game.whiteToMove() ? winc : binc;
+            int togo = movestogo > 0 ? movestogo + 1 : 30;
+            budget = Math.max(10, Math.min(myTime / togo + inc / 2, myTime - 50));
+        }
+
+        SearchLimits l = new SearchLimits(depth, nodes, 0);
+        if (budget > 0 && !ponder && !infinite) l.setMovetime(budget);
+        ponderMovetime = ponder ? budget : 0;
+        release = (ponder || infinite) ? new CountDownLatch(1) : null;
+        startSearch(game.snapshotShallow(), l);
+    }
+
+    private void ponderHit() {
+        SearchLimits l = limits;
+        if (l != null && ponderMovetime > 0) l.setMovetime(ponderMovetime);
+        CountDownLatch r = release;
+        if (r != null) r.countDown();
+    }
+
+    private void startSearch(Game root, SearchLimits l) {
+        limits = l;
+        IANivel3 engine = new IANivel3(Evaluator.named(evaluatorName));
+        searchThread = new Thread(() -> {
+            boolean white = root.whiteToMove();
+            SearchInfo result = engine.search(root, l, info -> printInfo(info, white));
+            CountDownLatch r = release;
+            if (r != null) {
+                try {
+                    r.await(); // em ponder/infinite o bestmove só sai após stop/ponderhit
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            printBestMove(result);
+        }, "uci-search");
+        searchThread.setDaemon(true);
+        searchThread.start();
+    }
+
+    private void stopSearch() {
+        Thread th = searchThread;
+        if (th == null) return;
+        if (limits != null) limits.stop();
+        CountDownLatch r = release;
+        if (r != null) r.countDown();
+        try {
+            th.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        searchThread = null;
+        limits = null;
+        release = null;
+    }
+
+    private void bench(int depth) {
+        long nodes = 0;
+        long start = System.nanoTime();
+        for (String line : BENCH_LINES) {
+            Game g = new Game();
+            for (String m : line.isEmpty() ? new String[0] : line.split(" ")) applyUciMove(g, m);
+            IANivel3 engine = new IANivel3(Evaluator.named(evaluatorName));
+            engine.search(g, SearchLimits.depth(depth), null);
+            nodes += engine.getNodes();
+        }
+        long ms = Math.max(1, (System.nanoTime() - start) / 1_000_000L);
+        out.println("===========================");
+        out.println("Total time (ms) : " + ms);
+        out.println("Nodes searched  : " + nodes);
+        out.println("Nodes/second    : " + nodes * 1000 / ms);
+        out.flush();
+    }
+
+    // ---------- Saída ----------
+
+    /** Linha "info" de uma iteração; pontuação do ponto de vista do lado a jogar. */
+    private void printInfo(SearchInfo info, boolean white) {
+        StringBuilder sb = new StringBuilder("info depth ").append(info.getDepth());
+        if (info.isMate()) {
+            int mate = info.mateInMoves();
+            sb.append(" score mate ").append(white ? mate : -mate);
+        } else {
+            long cp = Math.round(info.getScore());
+            sb.append(" score cp ").append(white ? cp : -cp);
+        }
+        sb.append(" nodes ").append(info.getNodes())
+          .append(" nps ").append(info.nps())
+          .append(" time ").append(info.getElapsedMillis())
+          .append(" pv");
+        for (Move m : info.getPv()) sb.append(' ').append(toUci(m));
+        out.println(sb);
+        out.flush();
+    }
+
+    private void printBestMove(SearchInfo result) {
+        if (result == null || result.bestMove() == null) {
+            out.println("bestmove 0000");
+        } else if (result.ponderMove() != null) {
+            out.println("bestmove " + toUci(result.bestMove()) + " ponder " + toUci(result.ponderMove()));
+        } else {
+            out.println("bestmove " + toUci(result.bestMove()));
+        }
+        out.flush();
+    }
+
+    // ---------- Notação UCI ----------
+
+    /** Aplica um lance em notação UCI (ex.: e2e4, e7e8q); false se inválido/ilegal. */
+    static boolean applyUciMove(Game g, String uci) {
+        if (uci.length() < 4) return false;
+        Position from = square(uci.charAt(0), uci.charAt(1));
+        Position to = square(uci.charAt(2), uci.charAt(3));
+        if (from == null || to == null || !g.isLegal(from, to)) return false;
+        Character promo = uci.length() > 4 ? Character.toUpperCase(uci.charAt(4)) : null;
+        g.move(from, to, promo);
+        return true;
+    }
+
+    static String toUci(Move m) {
+        String s = m.getFrom().toString() + m.getTo();
+        return m.getPromotion() == null ? s : s + Character.toLowerCase(m.getPromotion());
+    }
+
+    private static Position square(char file, char rank) {
+        if (file < 'a' || file > 'h' || rank < '1' || rank > '8') return null;
+        return new Position(8 - (rank - '0'), file - 'a');
+    }
+}
@@ -0,0 +1,86 @@
+package view;
+
+import ai.SearchInfo;
+import controller.Game;
+import controller.San;
+import java.awt.*;
+import javax.swing.*;
+import model.board.Move;
+import model.board.MoveCode;
+
+/** Painel com a análise ao vivo: profundidade, avaliação, nós, NPS e variante principal. */
+class AnalysisPanel extends JPanel {
+    private static final long serialVersionUID = 1L;
+
+    private final JLabel depth = new JLabel("-");
+    private final JLabel score = new JLabel("-");
+    private final JLabel nodes = new JLabel("-");
+    private final JLabel nps = new JLabel("-");
+    private final JTextArea pv = new JTextArea(3, 22);
+
+    AnalysisPanel(Color background) {
+        super(new BorderLayout(4, 4));
+        setBackground(background);
+        setBorder(BorderFactory.createEmptyBorder(6, 0, 6, 0));
+
+        JPanel grid = new JPanel(new GridLayout(2, 4, 6, 2));
+        grid.setOpaque(false);
+        addField(grid, "Prof.:", depth);
+        addField(grid, "Aval.:", score);
+        addField(grid, "Nós:", nodes);
+        addField(grid, "NPS:", nps);
+        add(grid, BorderLayout.NORTH);
+
+        pv.setEditable(false);
+        pv.setLineWrap(true);
+        pv.setWrapStyleWord(true);
+        pv.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        add(pv, BorderLayout.CENTER);
+    }
+
+    private static void addField(JPanel grid, String name, JLabel value) {
+        JLabel l = new JLabel(name);
+        l.setForeground(Color.WHITE);
+        value.setForeground(Color.WHITE);
+        value.setFont(value.getFont().deriveFont(Font.BOLD));
+        grid.add(l);
+        grid.add(value);
+    }
+
+    /** Mostra uma iteração; a PV é convertida em SAN a partir de {@code root}. */
+    void show(Game root, SearchInfo info) {
+        if (info == null) return;
+        depth.setText(String.valueOf(info.getDepth()));
+        if (info.isMate()) {
+            score.setText("#" + info.mateInMoves());
+        } else {
+            score.setText(String.format("%+.2f", info.getScore() / 100.0));
+        }
+        nodes.setText(String.format("%,d", info.getNodes()));
+        nps.setText(String.format("%,d", info.nps()));
+        pv.setText(formatPv(root, info));
+    }
+
+    void clear() {
+        depth.setText("-");
+        score.setText("-");
+        nodes.setText("-");
+        nps.setText("-");
+        pv.setText("");
+    }
+
+    private static String formatPv(Game root, SearchInfo info) {
+        Game g = root.snapshotShallow();
+        StringBuilder sb = new StringBuilder();
+        boolean first = true;
+        for (Move m : info.getPv()) {
+            int code = MoveCode.encode(m.getFrom(), m.getTo(), m.getPromotion());
+            if (g.whiteToMove()) sb.append(g.fullmoveNumber()).append(". ");
+            else if (first) sb.append(g.fullmoveNumber()).append("... ");
+            sb.append(San.format(g, code)).append(' ');
+            g.move(code);
+            first = false;
+        }
+        return sb.toString().trim();
+    }
+}
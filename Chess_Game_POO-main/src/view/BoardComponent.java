@@ -0,0 +1,213 @@
+package view;
+
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import javax.swing.*;
+import controller.PositionSnapshot;
+import model.board.Position;
+
+/**
+ * Tabuleiro desenhado num único componente (no lugar de 64 JButtons).
+ * <p>
+ * O desenho fica numa imagem em cache do tamanho do tabuleiro; {@link #update}
+ * compara o novo estado (peças e destaques) com o desenhado, redesenha na
+ * imagem só as casas que mudaram e pede repaint apenas dessas áreas.
+ * {@code paintComponent} só copia a imagem. Cliques viram {@link Position}.
+ * <p>
+ * As peças vêm de um {@link ImageUtil.PieceAtlas} montado fora da EDT. Ao
+ * redimensionar, o atlas anterior continua em uso (escalado) e o novo só é
+ * pedido quando o tamanho para de mudar por {@value #ATLAS_DEBOUNCE_MS} ms.
+ */
+public class BoardComponent extends JComponent {
+    private static final long serialVersionUID = 1L;
+
+    private static final int MARK_LASTMOVE = 1, MARK_LEGAL = 2, MARK_SELECTED = 4;
+    private static final int HILITE_WIDTH = 3;
+    private static final int ATLAS_DEBOUNCE_MS = 150;
+
+    private final Color light, dark, selectedColor, legalColor, lastMoveColor;
+
+    // Estado desenhado na imagem: peça ('P', 'p', ... ou 0) e destaques por casa
+    private final char[] pieces = new char[64];
+    private final int[] marks = new int[64];
+    private final boolean[] dirty = new boolean[64];
+
+    private BufferedImage image;
+    private int square;      // lado da casa em px
+    private int originX, originY;
+
+    private Consumer<Position> clickListener = p -> { };
+
+    private ImageUtil.PieceAtlas atlas;    // atlas em uso (pode ser de outro tamanho)
+    private int wantedAtlasSize;
+    private final Timer atlasTimer = new Timer(ATLAS_DEBOUNCE_MS, e -> requestAtlas());
+
+    public BoardComponent(Color light, Color dark, Color selected, Color legal, Color lastMove) {
+        this.light = light;
+        this.dark = dark;
+        this.selectedColor = selected;
+        this.legalColor = legal;
+        this.lastMoveColor = lastMove;
+        setOpaque(true);
+        setBackground(dark);
+
+        atlasTimer.setRepeats(false);
+        wantedAtlasSize = 56;
+        requestAtlas(); // tamanho provável, para já ter peças no primeiro desenho
+
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                if (!SwingUtilities.isLeftMouseButton(e)) return;
+                Position p = squareAt(e.getX(), e.getY());
+                if (p != null) clickListener.accept(p);
+            }
+        });
+    }
+
+    public void setClickListener(Consumer<Position> listener) {
+        this.clickListener = listener;
+    }
+
+    /** Casa sob o ponto (coordenadas do componente), ou null fora do tabuleiro. */
+    public Position squareAt(int x, int y) {
+        if (square <= 0) return null;
+        int c = Math.floorDiv(x - originX, square);
+        int r = Math.floorDiv(y - originY, square);
+        return (r < 0 || r > 7 || c < 0 || c > 7) ? null : new Position(r, c);
+    }
+
+    /**
+     * Sincroniza com a posição e os destaques; só as casas diferentes do que
+     * já está desenhado são redesenhadas.
+     */
+    public void update(PositionSnapshot position, Position selected, List<Position> legal, Position lastFrom, Position lastTo) {
+        int[] newMarks = new int[64];
+        if (lastFrom != null) newMarks[index(lastFrom)] |= MARK_LASTMOVE;
+        if (lastTo != null) newMarks[index(lastTo)] |= MARK_LASTMOVE;
+        if (selected != null) {
+            newMarks[index(selected)] |= MARK_SELECTED;
+            for (Position d : legal) newMarks[index(d)] |= MARK_LEGAL;
+        }
+        for (int sq = 0; sq < 64; sq++) {
+            char code = position.pieceAt(sq);
+            if (code != pieces[sq] || newMarks[sq] != marks[sq]) {
+                pieces[sq] = code;
+                marks[sq] = newMarks[sq];
+                dirty[sq] = true;
+            }
+        }
+        flushDirty();
+    }
+
+    private static int index(Position p) {
+        return p.getRow() * 8 + p.getColumn();
+    }
+
+    /** Redesenha na imagem as casas sujas e agenda o repaint só delas. */
+    private void flushDirty() {
+        if (image == null) return; // ainda sem tamanho: tudo será desenhado em layout()
+        Graphics2D g = image.createGraphics();
+        try {
+            prepare(g);
+            for (int sq = 0; sq < 64; sq++) {
+                if (!dirty[sq]) continue;
+                dirty[sq] = false;
+                drawSquare(g, sq);
+                repaint(originX + (sq & 7) * square, originY + (sq >> 3) * square, square, square);
+            }
+        } finally {
+            g.dispose();
+        }
+    }
+
+    @Override
+    public void setBounds(int x, int y, int width, int height) {
+        super.setBounds(x, y, width, height);
+        relayout();
+    }
+
+    /** Recalcula a geometria; se o tamanho da casa mudou, recria a imagem inteira. */
+    private void relayout() {
+        Insets in = getInsets();
+        int w = getWidth() - in.left - in.right;
+        int h = getHeight() - in.top - in.bottom;
+        int sq = Math.max(1, Math.min(w, h) / 8);
+        originX = in.left + (w - sq * 8) / 2;
+        originY = in.top + (h - sq * 8) / 2;
+        if (image != null && sq == square) return;
+        square = sq;
+        image = new BufferedImage(sq * 8, sq * 8, BufferedImage.TYPE_INT_RGB);
+        Arrays.fill(dirty, true);
+        flushDirty();
+        repaint();
+
+        wantedAtlasSize = pieceSize();
+        if (atlas == null) requestAtlas();
+        else if (atlas.size() != wantedAtlasSize) atlasTimer.restart(); // debounce
+    }
+
+    private int pieceSize() {
+        return Math.max(24, square - 8);
+    }
+
+    /** Pede o atlas do tamanho atual; quando pronto (na EDT), redesenha tudo com ele. */
+    private void requestAtlas() {
+        int size = wantedAtlasSize;
+        ImageUtil.pieceAtlas(size).thenAccept(a -> SwingUtilities.invokeLater(() -> {
+            if (a.size() != wantedAtlasSize && atlas != null) return; // já pediram outro tamanho
+            atlas = a;
+            Arrays.fill(dirty, true);
+            flushDirty();
+        }));
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        g.setColor(getBackground());
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+        if (image != null) g.drawImage(image, originX, originY, null);
+    }
+
+    private void prepare(Graphics2D g) {
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    }
+
+    private void drawSquare(Graphics2D g, int sq) {
+        int r = sq >> 3, c = sq & 7;
+        int x = c * square, y = r * square;
+        g.setColor(((r + c) & 1) == 0 ? light : dark);
+        g.fillRect(x, y, square, square);
+
+        int m = marks[sq];
+        Color hilite = (m & MARK_SELECTED) != 0 ? selectedColor
+                : (m & MARK_LEGAL) != 0 ? legalColor
+                : (m & MARK_LASTMOVE) != 0 ? lastMoveColor : null;
+        if (hilite != null) {
+            g.setColor(hilite);
+            for (int i = 0; i < HILITE_WIDTH; i++) g.drawRect(x + i, y + i, square - 1 - 2 * i, square - 1 - 2 * i);
+        }
+
+        char code = pieces[sq];
+        if (code != 0 && atlas != null) {
+            int size = pieceSize();
+            int off = (square - size) / 2;
+            atlas.draw(g, Character.isUpperCase(code), code, x + off, y + off, size);
+        }
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        if (isPreferredSizeSet()) return super.getPreferredSize();
+        Insets in = getInsets();
+        return new Dimension(8 * 64 + in.left + in.right, 8 * 64 + in.top + in.bottom);
+    }
+}
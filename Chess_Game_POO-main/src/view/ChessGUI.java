@@ -1,9 +1,15 @@
 package view;
 
 import ai.IANivel2;
+import ai.SearchInfo;
+import ai.SearchLimits;
+import ai.SearchScheduler;
 import model.board.Move;
+import model.board.MoveCode;
 
 import controller.Game;
+import controller.GameTimeline;
+import controller.PositionSnapshot;
 import java.awt.*;
 import java.awt.event.*;
 import java.io.IOException;
@@ -14,10 +20,10 @@ import java.util.Random;
 import javax.imageio.ImageIO;
 import javax.swing.*;
 import javax.swing.border.Border;
-import javax.swing.border.MatteBorder;
 import model.board.Position;
 import model.pieces.Pawn;
 import model.pieces.Piece;
+import trace.ChessEvents;
 
 public class ChessGUI extends JFrame {
     private static final long serialVersionUID = 1L;
@@ -29,24 +35,23 @@ public class ChessGUI extends JFrame {
     private static final Color HILITE_LEGAL    = new Color(160, 100, 200);
     private static final Color HILITE_LASTMOVE = new Color(255, 200, 100);
 
-    private static final Border BORDER_SELECTED = new MatteBorder(3,3,3,3, HILITE_SELECTED);
-    private static final Border BORDER_LEGAL    = new MatteBorder(3,3,3,3, HILITE_LEGAL);
-    private static final Border BORDER_LASTMOVE = new MatteBorder(3,3,3,3, HILITE_LASTMOVE);
+    private final Game game;           // posição mostrada (viewPly da linha do tempo)
+    private GameTimeline timeline;     // todos os lances da partida, para navegar
+    private int viewPly;
 
-    private final Game game;
-
-    private final JPanel boardPanel;
-    private final JButton[][] squares = new JButton[8][8];
+    private final BoardComponent boardPanel;
 
     private final JLabel status;
-    private final JTextArea history;
+    private final MoveListModel historyModel = new MoveListModel();
+    private final JList<String> history;
     private final JScrollPane historyScroll;
     private final List<String> capturedWhite = new ArrayList<>();
     private final List<String> capturedBlack = new ArrayList<>();
 
     private JCheckBoxMenuItem pcAsBlack;
+    private JCheckBoxMenuItem analysisMode, infiniteAnalysis;
     private JSpinner depthSpinner;
-    private JMenuItem newGameItem, quitItem;
+    private JMenuItem newGameItem, claimDrawItem, quitItem;
 
     private Position selected = null;
     private List<Position> legalForSelected = new ArrayList<>();
@@ -54,6 +59,13 @@ public class ChessGUI extends JFrame {
     private Position lastFrom = null, lastTo = null;
 
     private boolean aiThinking = false;
+    private final AnalysisPanel analysisPanel;
+    private SearchWorker infiniteWorker;
+    // Lances da IA passam pelo agendador (prioridade por prazo, admissão)
+    private static final long AI_BUDGET_MILLIS = 5000;
+    private static final int AI_RETRY_MILLIS = 200;
+    private final SearchScheduler aiScheduler = new SearchScheduler(Runtime.getRuntime().availableProcessors());
+    private int searchGeneration; // descarta resultados de buscas já substituídas
     private final Random rnd = new Random();
 
     public ChessGUI() {
@@ -66,13 +78,14 @@ public class ChessGUI extends JFrame {
         }
 
         this.game = new Game();
+        this.timeline = new GameTimeline(game);
 
         setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
         setLayout(new BorderLayout(8, 8));
 
         setJMenuBar(buildMenuBar());
 
-        boardPanel = new JPanel(new GridLayout(8, 8, 0, 0));
+        boardPanel = new BoardComponent(LIGHT_SQ, DARK_SQ, HILITE_SELECTED, HILITE_LEGAL, HILITE_LASTMOVE);
         boardPanel.setBackground(DARK_SQ);
         boardPanel.setPreferredSize(new Dimension(920, 680));
 
@@ -80,32 +93,27 @@ public class ChessGUI extends JFrame {
         Border innerBorder = BorderFactory.createMatteBorder(6, 6, 6, 6, LIGHT_SQ);
         boardPanel.setBorder(BorderFactory.createCompoundBorder(outerMargin, innerBorder));
 
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                final int rr = r;
-                final int cc = c;
-                JButton b = new JButton();
-                b.setMargin(new Insets(0, 0, 0, 0));
-                b.setFocusPainted(false);
-                b.setOpaque(true);
-                b.setBorderPainted(true);
-                b.setContentAreaFilled(true);
-                b.setFont(b.getFont().deriveFont(Font.BOLD, 24f));
-                b.addActionListener(e -> handleClick(new Position(rr, cc)));
-                squares[r][c] = b;
-                boardPanel.add(b);
-            }
-        }
+        boardPanel.setClickListener(this::handleClick);
 
         status = new JLabel("Vez: Eu");
         status.setBorder(BorderFactory.createEmptyBorder(4, 8, 4, 8));
         status.setFont(new Font("Segoe UI Symbol", Font.BOLD, 16));
         status.setForeground(new Color(255, 255, 255));
 
-        history = new JTextArea(14, 22);
-        history.setEditable(false);
+        history = new JList<>(historyModel);
         history.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
         history.setBackground(new Color(255, 255, 255));
+        history.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        // célula de tamanho fixo: a JList só mede e pinta as linhas visíveis
+        history.setPrototypeCellValue(MoveListModel.PROTOTYPE);
+        history.setVisibleRowCount(14);
+        history.setToolTipText("Clique num lance para ver essa posição");
+        history.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                jumpToClickedPly(e.getPoint());
+            }
+        });
         historyScroll = new JScrollPane(history);
         historyScroll.setPreferredSize(new Dimension(250, 400));
 
@@ -116,21 +124,23 @@ public class ChessGUI extends JFrame {
         histLabel.setForeground(new Color(255, 255, 255));
         histLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 4, 0));
         rightPanel.add(histLabel, BorderLayout.NORTH);
-        rightPanel.add(historyScroll, BorderLayout.CENTER);
-        rightPanel.add(buildSideControls(), BorderLayout.SOUTH);
+        JPanel historyPanel = new JPanel(new BorderLayout(0, 4));
+        historyPanel.setOpaque(false);
+        historyPanel.add(historyScroll, BorderLayout.CENTER);
+        historyPanel.add(buildNavigation(), BorderLayout.SOUTH);
+        rightPanel.add(historyPanel, BorderLayout.CENTER);
+        analysisPanel = new AnalysisPanel(new Color(91, 126, 167));
+        JPanel south = new JPanel(new BorderLayout());
+        south.setOpaque(false);
+        south.add(analysisPanel, BorderLayout.NORTH);
+        south.add(buildSideControls(), BorderLayout.SOUTH);
+        rightPanel.add(south, BorderLayout.SOUTH);
         rightPanel.setBackground(new Color(91, 126, 167));
 
         add(boardPanel, BorderLayout.CENTER);
         add(status, BorderLayout.SOUTH);
         add(rightPanel, BorderLayout.EAST);
 
-        boardPanel.addComponentListener(new ComponentAdapter() {
-            @Override
-            public void componentResized(ComponentEvent e) {
-                refresh();
-            }
-        });
-
         setMinimumSize(new Dimension(920, 680));
         setLocationRelativeTo(null);
         getContentPane().setBackground(new Color(47, 46, 71));
@@ -148,6 +158,10 @@ public class ChessGUI extends JFrame {
         newGameItem = new JMenuItem("Novo Jogo");
         newGameItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_N, Toolkit.getDefaultToolkit().getMenuShortcutKeyMaskEx()));
         newGameItem.addActionListener(e -> doNewGame());
+        claimDrawItem = new JMenuItem("Reivindicar empate");
+        claimDrawItem.setToolTipText("Repetição tripla ou 50 lances sem captura nem lance de peão");
+        claimDrawItem.setEnabled(false);
+        claimDrawItem.addActionListener(e -> doClaimDraw());
         pcAsBlack = new JCheckBoxMenuItem("PC joga com a IA");
         pcAsBlack.setSelected(false);
         JMenu depthMenu = new JMenu("Profundidade IA");
@@ -158,9 +172,15 @@ public class ChessGUI extends JFrame {
         quitItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Q, Toolkit.getDefaultToolkit().getMenuShortcutKeyMaskEx()));
         quitItem.addActionListener(e -> dispatchEvent(new WindowEvent(this, WindowEvent.WINDOW_CLOSING)));
         gameMenu.add(newGameItem);
+        gameMenu.add(claimDrawItem);
         gameMenu.addSeparator();
         gameMenu.add(pcAsBlack);
         gameMenu.add(depthMenu);
+        analysisMode = new JCheckBoxMenuItem("Mostrar análise da IA");
+        infiniteAnalysis = new JCheckBoxMenuItem("Análise infinita");
+        infiniteAnalysis.addActionListener(e -> updateInfiniteAnalysis());
+        gameMenu.add(analysisMode);
+        gameMenu.add(infiniteAnalysis);
         gameMenu.addSeparator();
         gameMenu.add(quitItem);
         mb.add(gameMenu);
@@ -196,7 +216,46 @@ public class ChessGUI extends JFrame {
         return panel;
     }
 
+    private JPanel buildNavigation() {
+        JPanel panel = new JPanel(new GridLayout(1, 4, 4, 0));
+        panel.setOpaque(false);
+        String[] labels = { "|<", "<", ">", ">|" };
+        String[] tips = { "Início", "Lance anterior", "Próximo lance", "Último lance" };
+        for (int i = 0; i < labels.length; i++) {
+            int which = i;
+            JButton b = new JButton(labels[i]);
+            b.setToolTipText(tips[i]);
+            b.setFocusable(false);
+            b.addActionListener(e -> navigate(which));
+            panel.add(b);
+        }
+        return panel;
+    }
+
+    /** 0 = início, 1 = anterior, 2 = próximo, 3 = fim. */
+    private void navigate(int which) {
+        switch (which) {
+            case 0 -> showPly(0);
+            case 1 -> showPly(viewPly - 1);
+            case 2 -> showPly(viewPly + 1);
+            default -> showPly(timeline.length());
+        }
+    }
+
     private void setupAccelerators() {
+        int[] navKeys = { KeyEvent.VK_HOME, KeyEvent.VK_LEFT, KeyEvent.VK_RIGHT, KeyEvent.VK_END };
+        for (int i = 0; i < navKeys.length; i++) {
+            int which = i;
+            getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW)
+                    .put(KeyStroke.getKeyStroke(navKeys[i], 0), "nav" + i);
+            getRootPane().getActionMap().put("nav" + i, new AbstractAction() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    navigate(which);
+                }
+            });
+        }
+
         getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW)
                 .put(KeyStroke.getKeyStroke(KeyEvent.VK_N, Toolkit.getDefaultToolkit().getMenuShortcutKeyMaskEx()),
                         "newGame");
@@ -226,11 +285,25 @@ public class ChessGUI extends JFrame {
         // Limpar as listas de peças capturadas
         capturedWhite.clear();
         capturedBlack.clear();
+        searchGeneration++; // resultados de buscas da partida anterior são ignorados
         game.newGame();
+        timeline = new GameTimeline(game);
+        viewPly = 0;
+        analysisPanel.clear();
         refresh();
+        updateInfiniteAnalysis();
         maybeTriggerAI();
     }
 
+    private void doClaimDraw() {
+        if (aiThinking || viewPly < timeline.length() || !timeline.claimDraw())
+            return;
+        game.claimDraw();
+        stopInfiniteAnalysis();
+        refresh();
+        maybeAnnounceEnd();
+    }
+
     private void handleClick(Position clicked) {
         if (game.isGameOver() || aiThinking)
             return;
@@ -262,11 +335,12 @@ public class ChessGUI extends JFrame {
                 }
                 lastFrom = selected;
                 lastTo = clicked;
-                game.move(selected, clicked, promo);
+                playMove(selected, clicked, promo);
                 selected = null;
                 legalForSelected.clear();
                 refresh();
                 maybeAnnounceEnd();
+                updateInfiniteAnalysis();
                 maybeTriggerAI();
                 return;
             } else if (p != null && p.isWhite() == game.whiteToMove()) {
@@ -280,6 +354,21 @@ public class ChessGUI extends JFrame {
         refresh();
     }
 
+    /**
+     * Joga o lance na posição mostrada e na linha do tempo; se a posição
+     * mostrada não é a última, os lances seguintes são descartados.
+     */
+    private void playMove(Position from, Position to, Character promo) {
+        int before = game.plyCount();
+        game.move(from, to, promo);
+        if (game.plyCount() == before)
+            return;
+        if (viewPly < timeline.length())
+            timeline.truncate(viewPly);
+        timeline.append(MoveCode.encode(from, to, promo));
+        viewPly = timeline.length();
+    }
+
     private Character askPromotion() {
         String[] opts = { "Rainha", "Torre", "Bispo", "Cavalo" };
         int ch = JOptionPane.showOptionDialog(
@@ -306,35 +395,92 @@ public class ChessGUI extends JFrame {
             return;
         if (game.whiteToMove())
             return;
+        if (viewPly < timeline.length())
+            return; // revendo a partida: a IA só joga na última posição
 
+        stopInfiniteAnalysis();
         aiThinking = true;
         status.setText("Vez: IA — pensando...");
 
-        new SwingWorker<model.board.Move, Void>() {
-            @Override
-            protected model.board.Move doInBackground() {
-                IANivel2 ia = new IANivel2();
-                return ia.makeMove(game);
-            }
+        if (analysisMode.isSelected()) {
+            // Busca iterativa publicando cada iteração no painel de análise
+            int gen = ++searchGeneration;
+            Game root = game.snapshotShallow();
+            int depth = (Integer) depthSpinner.getValue();
+            new SearchWorker(root, SearchLimits.depth(depth),
+                    info -> {
+                        if (gen == searchGeneration) analysisPanel.show(root, info);
+                    },
+                    result -> {
+                        if (gen != searchGeneration) return;
+                        analysisPanel.show(root, result);
+                        aiThinking = false;
+                        if (result != null && result.bestMove() != null && game.snapshot() == root.snapshot()) {
+                            model.board.Move best = result.bestMove();
+                            lastFrom = best.getFrom();
+                            lastTo = best.getTo();
+                            playMove(best.getFrom(), best.getTo(), best.getPromotion());
+                        }
+                        refresh();
+                        maybeAnnounceEnd();
+                        updateInfiniteAnalysis();
+                    }).execute();
+            return;
+        }
 
-            @Override
-            protected void done() {
-                try {
-                    model.board.Move bestMove = get();
-                    if (bestMove != null && !game.isGameOver() && !game.whiteToMove()) {
-                        lastFrom = bestMove.getFrom();
-                        lastTo = bestMove.getTo();
-                        Character promo = bestMove.getPromotion();
-                        game.move(bestMove.getFrom(), bestMove.getTo(), promo);
-                    }
-                } catch (Exception ignored) {
-                } finally {
-                    aiThinking = false;
-                    refresh();
-                    maybeAnnounceEnd();
-                }
+        // O agendador busca numa cópia tirada aqui na EDT; a partida viva só é lida na EDT
+        PositionSnapshot searched = game.snapshot();
+        java.util.concurrent.CompletableFuture<SearchInfo> search;
+        try {
+            search = aiScheduler.submit(new IANivel2(), game, AI_BUDGET_MILLIS);
+        } catch (java.util.concurrent.RejectedExecutionException e) {
+            // CPU saturada: tenta de novo em instantes
+            aiThinking = false;
+            Timer retry = new Timer(AI_RETRY_MILLIS, ev -> {
+                if (game.snapshot() == searched) maybeTriggerAI();
+            });
+            retry.setRepeats(false);
+            retry.start();
+            return;
+        }
+        search.whenComplete((info, error) -> SwingUtilities.invokeLater(() -> {
+            model.board.Move bestMove = info == null ? null : info.bestMove();
+            // mesma instância = a posição não mudou durante a busca
+            if (bestMove != null && game.snapshot() == searched) {
+                lastFrom = bestMove.getFrom();
+                lastTo = bestMove.getTo();
+                Character promo = bestMove.getPromotion();
+                playMove(bestMove.getFrom(), bestMove.getTo(), promo);
             }
-        }.execute();
+            aiThinking = false;
+            refresh();
+            maybeAnnounceEnd();
+            updateInfiniteAnalysis();
+        }));
+    }
+
+    /** (Re)inicia a análise infinita da posição atual, se ligada e a IA não estiver jogando. */
+    private void updateInfiniteAnalysis() {
+        stopInfiniteAnalysis();
+        if (!infiniteAnalysis.isSelected() || aiThinking || game.isGameOver())
+            return;
+        int gen = ++searchGeneration;
+        Game root = game.snapshotShallow();
+        infiniteWorker = new SearchWorker(root, SearchLimits.infinite(),
+                info -> {
+                    if (gen == searchGeneration) analysisPanel.show(root, info);
+                },
+                result -> {
+                    if (gen == searchGeneration) analysisPanel.show(root, result);
+                });
+        infiniteWorker.execute();
+    }
+
+    private void stopInfiniteAnalysis() {
+        if (infiniteWorker != null) {
+            infiniteWorker.stopSearch();
+            infiniteWorker = null;
+        }
     }
 
     private int evaluateBoard() {
@@ -412,52 +558,10 @@ public class ChessGUI extends JFrame {
     }
 
     private void refresh() {
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                boolean light = (r + c) % 2 == 0;
-                Color base = light ? LIGHT_SQ : DARK_SQ;
-                JButton b = squares[r][c];
-                b.setBackground(base);
-                b.setBorder(null);
-                b.setToolTipText(null);
-            }
-        }
-
-        if (lastFrom != null)
-            squares[lastFrom.getRow()][lastFrom.getColumn()].setBorder(BORDER_LASTMOVE);
-        if (lastTo != null)
-            squares[lastTo.getRow()][lastTo.getColumn()].setBorder(BORDER_LASTMOVE);
-
-        if (selected != null) {
-            squares[selected.getRow()][selected.getColumn()].setBorder(BORDER_SELECTED);
-            for (Position d : legalForSelected) {
-                squares[d.getRow()][d.getColumn()].setBorder(BORDER_LEGAL);
-            }
-        }
-
-        int iconSize = computeSquareIconSize();
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                Piece p = game.board().get(new Position(r, c));
-                JButton b = squares[r][c];
-
-                if (p == null) {
-                    b.setIcon(null);
-                    b.setText("");
-                    continue;
-                }
+        ChessEvents.GuiRefresh ev = new ChessEvents.GuiRefresh();
+        ev.begin();
+        boardPanel.update(game.snapshot(), selected, legalForSelected, lastFrom, lastTo);
 
-                char sym = p.getSymbol().charAt(0);
-                ImageIcon icon = ImageUtil.getPieceIcon(p.isWhite(), sym, iconSize);
-                if (icon != null) {
-                    b.setIcon(icon);
-                    b.setText("");
-                } else {
-                    b.setIcon(null);
-                    b.setText(toUnicode(p.getSymbol(), p.isWhite()));
-                }
-            }
-        }
         StringBuilder capturesText = new StringBuilder(" | Capturas: ");
         for (String symbol : capturedBlack) {
             capturesText.append(toUnicode(symbol, false)).append(" ");
@@ -472,29 +576,104 @@ public class ChessGUI extends JFrame {
             chk = " — PC pensando...";
 
         status.setText("Vez: " + side + chk + capturesText.toString());
+        claimDrawItem.setEnabled(!aiThinking && viewPly == timeline.length() && game.canClaimDraw());
+
+        syncHistory();
+        if (ev.shouldCommit()) {
+            ev.ply = viewPly;
+            ev.plies = timeline.length();
+            ev.commit();
+        }
+    }
+
+    /** Atualiza a lista de lances só com o que mudou e marca o lance mostrado. */
+    private void syncHistory() {
+        int before = historyModel.getSize();
+        historyModel.sync(timeline.history(), timeline.length());
+        int after = historyModel.getSize();
+        if (viewPly == 0) {
+            history.clearSelection();
+            history.ensureIndexIsVisible(0);
+        } else if (viewPly < timeline.length()) {
+            int row = (viewPly - 1) / 2;
+            history.setSelectedIndex(row);
+            history.ensureIndexIsVisible(row);
+        } else {
+            history.clearSelection();
+            if (after > before)
+                history.ensureIndexIsVisible(after - 1);
+        }
+    }
+
+    /** Mostra a posição do lance clicado na lista. */
+    private void jumpToClickedPly(Point p) {
+        int row = history.locationToIndex(p);
+        Rectangle cell = row < 0 ? null : history.getCellBounds(row, row);
+        if (cell == null || !cell.contains(p))
+            return;
+        int charWidth = history.getFontMetrics(history.getFont()).charWidth('m');
+        boolean blackHalf = p.x - cell.x >= MoveListModel.BLACK_COLUMN * charWidth;
+        int ply = historyModel.plyAt(row, blackHalf);
+        if (ply >= 0)
+            showPly(ply);
+        syncHistory(); // o clique mexeu na seleção da lista
+    }
+
+    /**
+     * Mostra a posição depois do lance {@code ply} (0 = inicial) sem descartar
+     * os lances seguintes; restaurar via {@link GameTimeline} custa no máximo
+     * alguns lances, qualquer que seja o tamanho da partida.
+     */
+    private void showPly(int ply) {
+        if (aiThinking || ply < 0 || ply > timeline.length() || ply == viewPly)
+            return;
+
+        searchGeneration++;
+        game.copyFrom(timeline.gameAt(ply));
+        viewPly = ply;
+        int code = ply > 0 ? timeline.codeAt(ply) : 0;
+        lastFrom = ply > 0 ? MoveCode.from(code) : null;
+        lastTo = ply > 0 ? MoveCode.to(code) : null;
+        selected = null;
+        legalForSelected.clear();
+        recountCaptures();
+        analysisPanel.clear();
+        refresh();
+        updateInfiniteAnalysis();
+        maybeTriggerAI();
+    }
 
-        StringBuilder sb = new StringBuilder();
-        var hist = game.history();
-        for (int i = 0; i < hist.size(); i++) {
-            if (i % 2 == 0)
-                sb.append((i / 2) + 1).append('.').append(' ');
-            sb.append(hist.get(i)).append(' ');
-            if (i % 2 == 1)
-                sb.append('\n');
+    /** Refaz as listas de capturas comparando o tabuleiro com o material inicial. */
+    private void recountCaptures() {
+        capturedWhite.clear();
+        capturedBlack.clear();
+        String[] symbols = { "Q", "R", "B", "N", "P" };
+        int[] initial = { 1, 2, 2, 2, 8 };
+        for (int i = 0; i < symbols.length; i++) {
+            int white = 0, black = 0;
+            for (int r = 0; r < 8; r++) {
+                for (int c = 0; c < 8; c++) {
+                    Piece p = game.board().get(r, c);
+                    if (p != null && p.getSymbol().equals(symbols[i])) {
+                        if (p.isWhite()) white++;
+                        else black++;
+                    }
+                }
+            }
+            for (int k = white; k < initial[i]; k++) capturedWhite.add(symbols[i]);
+            for (int k = black; k < initial[i]; k++) capturedBlack.add(symbols[i]);
         }
-        history.setText(sb.toString());
-        history.setCaretPosition(history.getDocument().getLength());
     }
 
     private void maybeAnnounceEnd() {
         if (!game.isGameOver())
             return;
         String msg;
-        if (game.inCheck(game.whiteToMove())) {
+        if (game.isDraw()) {
+            msg = "Empate por " + game.drawReason() + ".";
+        } else {
             msg = "Xeque-Mate: Eu sou o melhor!! " + (game.whiteToMove() ? "Eu" : "IA")
                     + " estão em mate.";
-        } else {
-            msg = "Empate por afogamento (stalemate).";
         }
         JOptionPane.showMessageDialog(this, msg, "Fim de Jogo", JOptionPane.INFORMATION_MESSAGE);
     }
@@ -511,16 +690,6 @@ public class ChessGUI extends JFrame {
         };
     }
 
-    private int computeSquareIconSize() {
-        JButton b = squares[0][0];
-        int w = Math.max(1, b.getWidth());
-        int h = Math.max(1, b.getHeight());
-        int side = Math.min(w, h);
-        if (side <= 1)
-            return 64;
-        return Math.max(24, side - 8);
-    }
-
     private Icon loadPieceIcon(String key) {
         String resourcePath = "/resources/" + key + ".png";
         try {
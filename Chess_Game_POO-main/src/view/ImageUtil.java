@@ -4,11 +4,16 @@ import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.net.URL;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import javax.imageio.ImageIO;
 import javax.swing.*;
+import trace.ChessEvents;
 
 /**
  * Utilitário para carregar e redimensionar imagens/ícones do projeto.
@@ -18,6 +23,8 @@ import javax.swing.*;
  *   3) disco:     resources/<filename>
  *
  * Mantém um cache LRU por (filename|size) de ImageIcon escalado com alta qualidade.
+ * Para o tabuleiro há também o atlas de peças ({@link #pieceAtlas}): as 12
+ * peças num tamanho, montadas numa thread de fundo.
  */
 public final class ImageUtil {
 
@@ -36,6 +43,23 @@ public final class ImageUtil {
                 }
             };
 
+    // Atlas de peças por tamanho (poucos: o atual e os de redimensionamentos recentes)
+    private static final int MAX_ATLASES = 4;
+    private static final String PIECES = "KQRBNP";
+    private static final Map<Integer, CompletableFuture<PieceAtlas>> ATLAS_CACHE =
+            new LinkedHashMap<>(8, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, CompletableFuture<PieceAtlas>> eldest) {
+                    return size() > MAX_ATLASES;
+                }
+            };
+    private static final Map<String, BufferedImage> SOURCES = new HashMap<>(); // PNGs originais
+    private static final ExecutorService ATLAS_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "piece-atlas");
+        t.setDaemon(true);
+        return t;
+    });
+
     private ImageUtil() { /* utilitário */ }
 
     /** Limpa o cache LRU de ícones escalados. */
@@ -97,11 +121,21 @@ public final class ImageUtil {
             if (cached != null) return cached;
         }
 
+        ChessEvents.ImageScaled ev = new ChessEvents.ImageScaled();
+        ev.begin();
+        long t0 = ev.isEnabled() ? System.nanoTime() : 0;
         BufferedImage img = loadBuffered(filename);
         if (img == null) return null;
+        long loaded = ev.isEnabled() ? System.nanoTime() - t0 : 0;
 
         BufferedImage scaled = scaleImageHQ(img, size, size);
         ImageIcon icon = new ImageIcon(scaled);
+        if (ev.shouldCommit()) {
+            ev.file = filename;
+            ev.size = size;
+            ev.loadNanos = loaded;
+            ev.commit();
+        }
 
         synchronized (ImageUtil.class) {
             ICON_CACHE.put(cacheKey, icon);
@@ -183,6 +217,89 @@ public final class ImageUtil {
         return new ImageIcon(img);
     }
 
+    // ---------- Atlas de peças ----------
+
+    /**
+     * As 12 peças (brancas K..P, pretas K..P) escaladas para {@code size}
+     * numa única imagem. Imutável; pode ser desenhado de qualquer thread.
+     */
+    public static final class PieceAtlas {
+        private final int size;
+        private final BufferedImage[] sprites = new BufferedImage[12];
+
+        private PieceAtlas(int size, BufferedImage sheet) {
+            this.size = size;
+            for (int i = 0; i < 12; i++) sprites[i] = sheet.getSubimage(i * size, 0, size, size);
+        }
+
+        public int size() { return size; }
+
+        /** Sprite da peça (K,Q,R,B,N,P); null se o caractere não for uma peça. */
+        public BufferedImage sprite(boolean isWhite, char pieceChar) {
+            int i = PIECES.indexOf(Character.toUpperCase(pieceChar));
+            return i < 0 ? null : sprites[isWhite ? i : i + 6];
+        }
+
+        /** Desenha a peça com lado {@code side}; escala (rápido) se o atlas for de outro tamanho. */
+        public void draw(Graphics g, boolean isWhite, char pieceChar, int x, int y, int side) {
+            BufferedImage img = sprite(isWhite, pieceChar);
+            if (img == null) return;
+            if (side == size) g.drawImage(img, x, y, null);
+            else g.drawImage(img, x, y, side, side, null);
+        }
+    }
+
+    /**
+     * Atlas de peças no tamanho pedido. Se ainda não existe, é montado numa
+     * thread de fundo; quem chama (normalmente a EDT) não espera: continua
+     * usando o atlas anterior até o futuro completar.
+     */
+    public static CompletableFuture<PieceAtlas> pieceAtlas(int size) {
+        int s = sanitizeSize(size);
+        synchronized (ImageUtil.class) {
+            CompletableFuture<PieceAtlas> f = ATLAS_CACHE.get(s);
+            if (f == null) {
+                f = CompletableFuture.supplyAsync(() -> buildAtlas(s), ATLAS_EXECUTOR);
+                ATLAS_CACHE.put(s, f);
+            }
+            return f;
+        }
+    }
+
+    private static PieceAtlas buildAtlas(int size) {
+        ChessEvents.ImageScaled ev = new ChessEvents.ImageScaled();
+        ev.begin();
+        BufferedImage sheet = new BufferedImage(size * 12, size, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = sheet.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            for (int i = 0; i < 12; i++) {
+                boolean white = i < 6;
+                char p = PIECES.charAt(i % 6);
+                BufferedImage src = source((white ? "w" : "b") + p + ".png");
+                Image img = (src != null) ? src : placeholderIcon(p, white, size).getImage();
+                g.drawImage(img, i * size, 0, size, size, null);
+            }
+        } finally {
+            g.dispose();
+        }
+        if (ev.shouldCommit()) {
+            ev.file = "atlas de peças";
+            ev.size = size;
+            ev.commit();
+        }
+        return new PieceAtlas(size, sheet);
+    }
+
+    /** PNG original, lido uma vez (só na thread do atlas). */
+    private static BufferedImage source(String filename) {
+        synchronized (SOURCES) {
+            if (!SOURCES.containsKey(filename)) SOURCES.put(filename, loadBuffered(filename));
+            return SOURCES.get(filename);
+        }
+    }
+
     // ---------- Helpers ----------
 
     private static int sanitizeSize(int size) {
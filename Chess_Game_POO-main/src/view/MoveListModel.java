@@ -0,0 +1,126 @@
+package view;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.AbstractListModel;
+
+/**
+ * Modelo da lista de lances: uma linha por lance completo ("12. Nf3     Nc6")
+ * e uma linha final com o resultado, se houver. O texto de cada linha é
+ * montado só quando a JList pede (isto é, para as linhas visíveis), e
+ * {@link #sync} notifica apenas as linhas que mudaram.
+ */
+class MoveListModel extends AbstractListModel<String> {
+    private static final long serialVersionUID = 1L;
+
+    /** Colunas (em caracteres) de cada linha: número, lance das brancas, lance das pretas. */
+    static final int WHITE_COLUMN = 6, BLACK_COLUMN = 16;
+    /** Linha mais larga esperada, para a JList fixar a altura/largura das células. */
+    static final String PROTOTYPE = "9999. Qxe8=Q+   Qxe8=Q+";
+
+    private final ArrayList<String> moves = new ArrayList<>();
+    private String result; // marcador de fim (checkmate/draw), ou null
+    private List<String> synced; // última lista sincronizada (imutável, vinda do Game)
+
+    @Override
+    public int getSize() {
+        return moveRows() + (result != null ? 1 : 0);
+    }
+
+    @Override
+    public String getElementAt(int row) {
+        if (row >= moveRows()) return result;
+        StringBuilder sb = new StringBuilder(32);
+        sb.append(row + 1).append('.');
+        pad(sb, WHITE_COLUMN);
+        sb.append(moves.get(2 * row));
+        if (2 * row + 1 < moves.size()) {
+            pad(sb, BLACK_COLUMN);
+            sb.append(moves.get(2 * row + 1));
+        }
+        return sb.toString();
+    }
+
+    private static void pad(StringBuilder sb, int column) {
+        do sb.append(' '); while (sb.length() < column);
+    }
+
+    private int moveRows() {
+        return (moves.size() + 1) / 2;
+    }
+
+    /** Número de lances na lista. */
+    int plyCount() {
+        return moves.size();
+    }
+
+    /**
+     * Ply (1..{@link #plyCount()}) mostrado na linha dada: o lance das brancas
+     * ou, com {@code blackHalf}, o das pretas. -1 se a célula não tem lance.
+     */
+    int plyAt(int row, boolean blackHalf) {
+        if (row < 0 || row >= moveRows()) return -1;
+        int ply = 2 * row + (blackHalf ? 2 : 1);
+        return Math.min(ply, moves.size());
+    }
+
+    /**
+     * Sincroniza com o histórico do jogo ({@code history} = lances seguidos
+     * dos marcadores de fim; {@code plies} = quantos são lances). Sem mudança
+     * é O(1); depois de um lance, O(lances novos), e só as linhas novas são
+     * notificadas; depois de voltar a um ply ou de uma partida nova, a lista
+     * é comparada inteira e só as linhas que divergem são notificadas.
+     */
+    void sync(List<String> history, int plies) {
+        if (history == synced) return;
+        synced = history;
+
+        int oldRows = getSize();
+        int oldMoveRows = moveRows();
+        int oldPlies = moves.size();
+        int d;
+        if (extendsSynced(history, plies)) {
+            // lances novos no fim: o começo é o mesmo array copiado, nada a comparar
+            d = oldPlies;
+            moves.addAll(history.subList(d, plies));
+        } else {
+            int common = Math.min(oldPlies, plies);
+            d = 0;
+            while (d < common && moves.get(d).equals(history.get(d))) d++;
+            // guarda as instâncias da lista nova, para o próximo extendsSynced
+            moves.clear();
+            moves.addAll(history.subList(0, plies));
+        }
+        String newResult = plies < history.size() ? history.get(history.size() - 1) : null;
+
+        int firstChanged = d / 2;
+        if (d == oldPlies && plies == oldPlies) {
+            // lances iguais: no máximo a linha do resultado mudou
+            if (result == null ? newResult == null : result.equals(newResult)) {
+                return;
+            }
+            firstChanged = oldMoveRows;
+        }
+        result = newResult;
+
+        int newRows = getSize();
+        int both = Math.min(oldRows, newRows);
+        if (firstChanged < both) fireContentsChanged(this, firstChanged, both - 1);
+        if (newRows > oldRows) fireIntervalAdded(this, oldRows, newRows - 1);
+        else if (newRows < oldRows) fireIntervalRemoved(this, newRows, oldRows - 1);
+    }
+
+    /**
+     * O histórico só acrescenta lances ao sincronizado? O Game monta a lista
+     * estendida copiando o texto da anterior, então as mesmas instâncias de
+     * String no primeiro e no último lance em comum indicam o mesmo ancestral;
+     * uma partida nova ou uma volta no histórico gera textos novos (e cai na
+     * comparação completa).
+     */
+    private boolean extendsSynced(List<String> history, int plies) {
+        int n = moves.size();
+        return n > 0 && plies >= n
+                && moves.get(0) == history.get(0)
+                && moves.get(n - 1) == history.get(n - 1);
+    }
+}
@@ -0,0 +1,70 @@
+package view;
+
+import ai.IANivel3;
+import ai.SearchInfo;
+import ai.SearchLimits;
+import controller.Game;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
+
+/**
+ * Roda a busca iterativa do {@link IANivel3} fora da EDT. Cada iteração
+ * substitui a pendente e um {@link Timer} entrega a mais recente na EDT a
+ * cada {@value #PUBLISH_INTERVAL_MS} ms: as iterações rápidas do início se
+ * fundem numa só atualização e a última iteração completa aparece no máximo
+ * um intervalo depois de terminar, mesmo que a seguinte demore.
+ * O resultado final sempre chega por {@code onDone}.
+ */
+class SearchWorker extends SwingWorker<SearchInfo, Void> {
+
+    static final long PUBLISH_INTERVAL_MS = 250;
+
+    private final Game root;
+    private final SearchLimits limits;
+    private final Consumer<SearchInfo> onInfo;
+    private final Consumer<SearchInfo> onDone;
+    private final AtomicReference<SearchInfo> pending = new AtomicReference<>();
+    private final Timer flush;
+
+    /**
+     * @param root   posição a analisar (a busca usa uma cópia)
+     * @param onInfo chamado na EDT com a iteração mais recente
+     * @param onDone chamado na EDT com a última iteração completa (null se não houve)
+     */
+    SearchWorker(Game root, SearchLimits limits, Consumer<SearchInfo> onInfo, Consumer<SearchInfo> onDone) {
+        this.root = root.snapshotShallow();
+        this.limits = limits;
+        this.onInfo = onInfo;
+        this.onDone = onDone;
+        this.flush = new Timer((int) PUBLISH_INTERVAL_MS, e -> {
+            SearchInfo info = pending.getAndSet(null);
+            if (info != null) onInfo.accept(info);
+        });
+    }
+
+    /** Cópia da posição analisada (para converter a PV em SAN). */
+    Game root() { return root; }
+
+    /** Para a busca; a última iteração completa ainda é entregue. */
+    void stopSearch() { limits.stop(); }
+
+    @Override
+    protected SearchInfo doInBackground() {
+        flush.start();
+        return new IANivel3().search(root.snapshotShallow(), limits, pending::set);
+    }
+
+    @Override
+    protected void done() {
+        flush.stop();
+        pending.set(null); // o resultado final já é a iteração mais recente
+        SearchInfo result = null;
+        try {
+            result = get();
+        } catch (Exception ignored) {
+        }
+        onDone.accept(result);
+    }
+}